@@ -0,0 +1,83 @@
+package com.api.worldline.flights.benchmark;
+
+import com.api.worldline.flights.client.dto.FlightCrazySupplierResponse;
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.model.Flight;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic flight data shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    static final LocalDateTime START = LocalDateTime.of(2025, 7, 1, 0, 0);
+
+    private static final List<String> AIRPORTS = List.of("GRU", "JFK", "FRA", "AMS", "LHR", "CDG", "MAD", "LIS");
+    private static final List<String> AIRLINES = List.of("Lufthansa", "Delta", "LATAM", "KLM", "Iberia");
+
+    private BenchmarkData() {
+    }
+
+    static List<Flight> flights(int size) {
+        List<Flight> flights = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Flight flight = new Flight();
+            flight.setId((long) i + 1);
+            flight.setAirline(airline(i));
+            flight.setSupplier("Internal");
+            flight.setFare(100 + (i % 900) + 0.99);
+            flight.setDepartureAirport(departureAirport(i));
+            flight.setDestinationAirport(destinationAirport(i));
+            flight.setDepartureTime(START.plusMinutes(i * 7L));
+            flight.setArrivalTime(START.plusMinutes(i * 7L + 480));
+            flights.add(flight);
+        }
+        return flights;
+    }
+
+    static List<FlightResponse> flightResponses(int size) {
+        List<FlightResponse> flights = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            flights.add(new FlightResponse(
+                    (long) i + 1,
+                    airline(i),
+                    "Internal",
+                    100 + (i % 900) + 0.99,
+                    departureAirport(i),
+                    destinationAirport(i),
+                    START.plusMinutes(i * 7L),
+                    START.plusMinutes(i * 7L + 480)));
+        }
+        return flights;
+    }
+
+    static List<FlightCrazySupplierResponse> supplierFlights(int size) {
+        List<FlightCrazySupplierResponse> flights = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            flights.add(new FlightCrazySupplierResponse(
+                    airline(i),
+                    80 + (i % 700),
+                    20.5,
+                    departureAirport(i),
+                    destinationAirport(i),
+                    START.plusMinutes(i * 11L),
+                    START.plusMinutes(i * 11L + 480)));
+        }
+        return flights;
+    }
+
+    private static String airline(int i) {
+        return AIRLINES.get(i % AIRLINES.size());
+    }
+
+    private static String departureAirport(int i) {
+        return AIRPORTS.get(i % AIRPORTS.size());
+    }
+
+    private static String destinationAirport(int i) {
+        return AIRPORTS.get((i + 3) % AIRPORTS.size());
+    }
+}
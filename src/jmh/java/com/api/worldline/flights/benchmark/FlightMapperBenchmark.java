@@ -0,0 +1,48 @@
+package com.api.worldline.flights.benchmark;
+
+import com.api.worldline.flights.client.dto.FlightCrazySupplierResponse;
+import com.api.worldline.flights.config.FlightMapper;
+import com.api.worldline.flights.config.FlightMapperImpl;
+import com.api.worldline.flights.model.Flight;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlightMapperBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private final FlightMapper flightMapper = new FlightMapperImpl();
+
+    private List<Flight> flights;
+    private List<FlightCrazySupplierResponse> supplierFlights;
+
+    @Setup
+    public void setup() {
+        flights = BenchmarkData.flights(size);
+        supplierFlights = BenchmarkData.supplierFlights(size);
+    }
+
+    @Benchmark
+    public void toResponse(Blackhole blackhole) {
+        for (Flight flight : flights) {
+            blackhole.consume(flightMapper.toResponse(flight));
+        }
+    }
+
+    @Benchmark
+    public void fromCrazySupplierToResponse(Blackhole blackhole) {
+        for (FlightCrazySupplierResponse flight : supplierFlights) {
+            blackhole.consume(flightMapper.fromCrazySupplierToResponse(flight));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.api.worldline.flights.benchmark;
+
+import com.api.worldline.flights.config.FareCalendarProperties;
+import com.api.worldline.flights.config.FlightDedupProperties;
+import com.api.worldline.flights.config.FlightMapper;
+import com.api.worldline.flights.config.FlightMapperImpl;
+import com.api.worldline.flights.config.FlightSearchProperties;
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.index.FlightRouteIndex;
+import com.api.worldline.flights.model.Flight;
+import com.api.worldline.flights.repository.FlightRepository;
+import com.api.worldline.flights.service.FareCalendarChanges;
+import com.api.worldline.flights.service.FlightDataVersion;
+import com.api.worldline.flights.service.FlightDeduplicator;
+import com.api.worldline.flights.service.FlightSearchMetrics;
+import com.api.worldline.flights.service.FlightService;
+import com.api.worldline.flights.service.dto.FlightPageRequest;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import com.api.worldline.flights.service.dto.FlightSearchResult;
+import com.api.worldline.flights.supplier.FlightSupplier;
+import com.api.worldline.flights.supplier.SupplierAggregator;
+import com.api.worldline.flights.supplier.SupplierResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of FlightService.searchFlights beyond I/O: mapping database rows, filtering and sorting
+ * supplier flights and merging both into one page. Both sources answer instantly and run on the
+ * calling thread, so the numbers are pure CPU.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlightMergeBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private FlightService flightService;
+    private FlightSearchCriteria criteria;
+    private FlightPageRequest pageRequest;
+
+    @Setup
+    public void setup() {
+        FlightMapper flightMapper = new FlightMapperImpl();
+        List<Flight> databaseFlights = BenchmarkData.flights(size);
+        List<FlightResponse> supplierFlights = BenchmarkData.supplierFlights(size).stream()
+                .map(flightMapper::fromCrazySupplierToResponse)
+                .toList();
+
+        FlightSearchProperties properties = new FlightSearchProperties(
+                Duration.ofSeconds(30),
+                Duration.ofSeconds(30),
+                Map.of(),
+                size,
+                size,
+                true,
+                new FlightSearchProperties.Executor(1, 1, 1)
+        );
+        Executor sameThread = Runnable::run;
+        FlightSearchMetrics metrics = new FlightSearchMetrics(new SimpleMeterRegistry());
+        SupplierAggregator supplierAggregator = new SupplierAggregator(List.of(new StaticSupplier(supplierFlights)), sameThread, properties, metrics);
+        flightService = new FlightService(flightMapper, repositoryReturning(databaseFlights), new TransactionTemplate(), supplierAggregator, new FlightRouteIndex(), new FlightDataVersion(),
+                new FareCalendarChanges(new FareCalendarProperties(false, Duration.ofSeconds(5), Duration.ofHours(1))), metrics,
+                new FlightDeduplicator(new FlightDedupProperties(true, FlightDedupProperties.Policy.CHEAPEST, List.of())), sameThread, properties);
+
+        criteria = new FlightSearchCriteria(null, null, null, null, null);
+        pageRequest = new FlightPageRequest(null, size);
+    }
+
+    @Benchmark
+    public FlightSearchResult searchFlights() {
+        return flightService.searchFlights(criteria, pageRequest);
+    }
+
+    private static FlightRepository repositoryReturning(List<Flight> flights) {
+        return (FlightRepository) Proxy.newProxyInstance(
+                FlightRepository.class.getClassLoader(),
+                new Class<?>[]{FlightRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "searchFlights", "searchFlightsPage" -> flights;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "FlightRepository(static)";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private record StaticSupplier(List<FlightResponse> flights) implements FlightSupplier {
+
+        @Override
+        public String getName() {
+            return "Static";
+        }
+
+        @Override
+        public SupplierResult searchFlights(FlightSearchCriteria criteria) {
+            return SupplierResult.ok(getName(), flights);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.api.worldline.flights.benchmark;
+
+import com.api.worldline.flights.FlightsApplication;
+import com.api.worldline.flights.model.Flight;
+import com.api.worldline.flights.repository.FlightRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flight searches against an in-memory H2 seeded with {@code size} rows, through the real
+ * repository and Hibernate configuration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlightRepositoryBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private FlightRepository flightRepository;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(FlightsApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        flightRepository = context.getBean(FlightRepository.class);
+
+        List<Flight> flights = BenchmarkData.flights(size);
+        context.getBean(JdbcTemplate.class).batchUpdate(
+                "INSERT INTO flights (id, version, airline, supplier, fare, departure_airport, destination_airport, departure_time, arrival_time) VALUES (NEXT VALUE FOR flights_seq, 0, ?, ?, ?, ?, ?, ?, ?)",
+                flights,
+                1000,
+                (statement, flight) -> {
+                    statement.setString(1, flight.getAirline());
+                    statement.setString(2, flight.getSupplier());
+                    statement.setDouble(3, flight.getFare());
+                    statement.setString(4, flight.getDepartureAirport());
+                    statement.setString(5, flight.getDestinationAirport());
+                    statement.setTimestamp(6, Timestamp.valueOf(flight.getDepartureTime()));
+                    statement.setTimestamp(7, Timestamp.valueOf(flight.getArrivalTime()));
+                });
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Flight> searchRoute() {
+        return flightRepository.searchFlights(null, "GRU", "AMS", BenchmarkData.START, null);
+    }
+
+    @Benchmark
+    public List<Flight> searchAll() {
+        return flightRepository.searchFlights(null, null, null, null, null);
+    }
+
+    @Benchmark
+    public List<Flight> searchFirstPage() {
+        return flightRepository.searchFlightsPage(null, null, null, null, null, null, null, PageRequest.ofSize(100));
+    }
+}
@@ -0,0 +1,43 @@
+package com.api.worldline.flights.benchmark;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.index.FlightRouteIndex;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import com.api.worldline.flights.service.dto.VersionedFlight;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Same searches as {@link FlightRepositoryBenchmark}, answered by the in-memory route index.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlightRouteIndexBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private FlightRouteIndex flightRouteIndex;
+
+    @Setup
+    public void setup() {
+        flightRouteIndex = new FlightRouteIndex();
+        flightRouteIndex.load(BenchmarkData.flightResponses(size).stream().map(flight -> new VersionedFlight(flight, 0L)));
+    }
+
+    @Benchmark
+    public List<FlightResponse> searchRoute() {
+        return flightRouteIndex.search(new FlightSearchCriteria(null, "GRU", "AMS", BenchmarkData.START, null));
+    }
+
+    @Benchmark
+    public List<FlightResponse> searchFirstPage() {
+        return flightRouteIndex.searchPage(new FlightSearchCriteria(null, null, null, null, null), null, 100);
+    }
+}
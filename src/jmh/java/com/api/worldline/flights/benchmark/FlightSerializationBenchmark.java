@@ -0,0 +1,51 @@
+package com.api.worldline.flights.benchmark;
+
+import com.api.worldline.flights.controller.FlightJsonWriter;
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a search response by Jackson, configured like the application's ObjectMapper,
+ * and by the FlightJsonWriter that writes the same bytes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlightSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private FlightJsonWriter flightJsonWriter;
+    private List<FlightResponse> flights;
+
+    @Setup
+    public void setup() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, FlightResponse.class));
+        flightJsonWriter = new FlightJsonWriter(objectMapper, 4096);
+        flights = BenchmarkData.flightResponses(size);
+    }
+
+    @Benchmark
+    public void jackson() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), flights);
+    }
+
+    @Benchmark
+    public void flightJsonWriter() throws IOException {
+        flightJsonWriter.write(flights, OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,176 @@
+package com.api.worldline.flights.benchmark;
+
+import com.api.worldline.flights.config.FareCalendarProperties;
+import com.api.worldline.flights.config.FlightDedupProperties;
+import com.api.worldline.flights.config.FlightMapper;
+import com.api.worldline.flights.config.FlightMapperImpl;
+import com.api.worldline.flights.config.FlightSearchProperties;
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.index.FlightRouteIndex;
+import com.api.worldline.flights.model.Flight;
+import com.api.worldline.flights.repository.FlightRepository;
+import com.api.worldline.flights.service.FareCalendarChanges;
+import com.api.worldline.flights.service.FlightDataVersion;
+import com.api.worldline.flights.service.FlightDeduplicator;
+import com.api.worldline.flights.service.FlightSearchMetrics;
+import com.api.worldline.flights.service.FlightService;
+import com.api.worldline.flights.service.dto.FlightPageRequest;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import com.api.worldline.flights.supplier.FlightSupplier;
+import com.api.worldline.flights.supplier.SupplierAggregator;
+import com.api.worldline.flights.supplier.SupplierResult;
+import com.api.worldline.flights.supplier.SupplierStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of FlightService.searchFlights under {@code concurrency} simultaneous searches while
+ * the supplier takes {@code supplierLatencyMillis} to answer, comparing the default threading
+ * (200 request threads like Tomcat, the bounded search pool) with the virtual-threads profile (one
+ * virtual thread per request and per leg). Each operation runs all searches and waits for them,
+ * so searches per second is {@code concurrency} divided by the reported time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class VirtualThreadSearchBenchmark {
+
+    private static final int REQUEST_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    private String threading;
+
+    @Param({"1000", "10000"})
+    private int concurrency;
+
+    @Param({"50"})
+    private int supplierLatencyMillis;
+
+    private ExecutorService requestExecutor;
+    private ThreadPoolTaskExecutor platformSearchExecutor;
+    private FlightService flightService;
+    private FlightSearchCriteria criteria;
+    private FlightPageRequest pageRequest;
+
+    @Setup
+    public void setup() {
+        FlightMapper flightMapper = new FlightMapperImpl();
+        List<Flight> databaseFlights = BenchmarkData.flights(20);
+        List<FlightResponse> supplierFlights = BenchmarkData.supplierFlights(20).stream()
+                .map(flightMapper::fromCrazySupplierToResponse)
+                .toList();
+
+        FlightSearchProperties properties = new FlightSearchProperties(
+                Duration.ofSeconds(60),
+                Duration.ofSeconds(60),
+                Map.of(),
+                20,
+                20,
+                false,
+                new FlightSearchProperties.Executor(16, 64, 500)
+        );
+        Executor searchExecutor;
+        if (threading.equals("virtual")) {
+            requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            SimpleAsyncTaskExecutor virtualExecutor = new SimpleAsyncTaskExecutor("flight-search-");
+            virtualExecutor.setVirtualThreads(true);
+            virtualExecutor.setConcurrencyLimit(1000);
+            searchExecutor = virtualExecutor;
+        } else {
+            requestExecutor = Executors.newFixedThreadPool(REQUEST_THREADS);
+            platformSearchExecutor = new ThreadPoolTaskExecutor();
+            platformSearchExecutor.setThreadNamePrefix("flight-search-");
+            platformSearchExecutor.setCorePoolSize(properties.executor().coreSize());
+            platformSearchExecutor.setMaxPoolSize(properties.executor().maxSize());
+            platformSearchExecutor.setQueueCapacity(properties.executor().queueCapacity());
+            platformSearchExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+            platformSearchExecutor.initialize();
+            searchExecutor = platformSearchExecutor;
+        }
+
+        FlightSearchMetrics metrics = new FlightSearchMetrics(new SimpleMeterRegistry());
+        SupplierAggregator supplierAggregator = new SupplierAggregator(
+                List.of(new SlowSupplier(supplierFlights, supplierLatencyMillis)), searchExecutor, properties, metrics);
+        flightService = new FlightService(flightMapper, repositoryReturning(databaseFlights), new TransactionTemplate(), supplierAggregator, new FlightRouteIndex(), new FlightDataVersion(),
+                new FareCalendarChanges(new FareCalendarProperties(false, Duration.ofSeconds(5), Duration.ofHours(1))), metrics,
+                new FlightDeduplicator(new FlightDedupProperties(true, FlightDedupProperties.Policy.CHEAPEST, List.of())), searchExecutor, properties);
+
+        criteria = new FlightSearchCriteria(null, null, null, null, null);
+        pageRequest = new FlightPageRequest(null, 20);
+    }
+
+    @TearDown
+    public void tearDown() {
+        requestExecutor.shutdownNow();
+        if (platformSearchExecutor != null) {
+            platformSearchExecutor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public int concurrentSearches() {
+        List<CompletableFuture<Integer>> searches = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            searches.add(CompletableFuture.supplyAsync(
+                    () -> flightService.searchFlights(criteria, pageRequest).flights().size(), requestExecutor));
+        }
+        int flights = 0;
+        for (CompletableFuture<Integer> search : searches) {
+            flights += search.join();
+        }
+        return flights;
+    }
+
+    private static FlightRepository repositoryReturning(List<Flight> flights) {
+        return (FlightRepository) Proxy.newProxyInstance(
+                FlightRepository.class.getClassLoader(),
+                new Class<?>[]{FlightRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "searchFlights", "searchFlightsPage" -> flights;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "FlightRepository(static)";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Blocks like a Feign call waiting for a slow supplier.
+     */
+    private record SlowSupplier(List<FlightResponse> flights, int latencyMillis) implements FlightSupplier {
+
+        @Override
+        public String getName() {
+            return "Slow";
+        }
+
+        @Override
+        public SupplierResult searchFlights(FlightSearchCriteria criteria) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return SupplierResult.failed(getName(), SupplierStatus.ERROR);
+            }
+            return SupplierResult.ok(getName(), flights);
+        }
+    }
+}
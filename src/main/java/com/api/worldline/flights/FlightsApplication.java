@@ -2,9 +2,11 @@ package com.api.worldline.flights;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@EnableFeignClients
+@EnableScheduling
+@ConfigurationPropertiesScan
 @SpringBootApplication
 public class FlightsApplication {
 
@@ -0,0 +1,140 @@
+package com.api.worldline.flights.client;
+
+import com.api.worldline.flights.client.dto.CachedFlights;
+import com.api.worldline.flights.client.dto.CrazySupplierFlightsLoaded;
+import com.api.worldline.flights.client.dto.FlightCrazySupplierRequest;
+import com.api.worldline.flights.client.dto.FlightCrazySupplierResponse;
+import com.api.worldline.flights.config.SupplierCacheProperties;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Caching decorator of {@link ResilientCrazySupplierClient}. Concurrent misses for the same request
+ * share a single upstream call, entries expire after the configured TTL and the cache is bounded
+ * either by entry count or by an estimated byte budget (W-TinyLFU eviction). Failed calls are not
+ * cached. Entries are loaded on a dedicated executor, not on the search threads waiting for them.
+ * <p>
+ * In stale-while-revalidate mode an entry past its TTL is returned immediately, flagged as stale,
+ * while a background reload replaces it; if the reload fails the last known-good entry is kept.
+ * <p>
+ * Every upstream fetch publishes a {@link CrazySupplierFlightsLoaded} event.
+ */
+@Component
+public class CachedCrazySupplierClient {
+
+    static final String CACHE_NAME = "crazySupplier";
+
+    private static final int REQUEST_WEIGHT_BYTES = 160;
+    private static final int FLIGHT_WEIGHT_BYTES = 320;
+
+    private final ResilientCrazySupplierClient crazySupplierClient;
+    private final SupplierCacheProperties properties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AsyncLoadingCache<FlightCrazySupplierRequest, CachedFlights> cache;
+
+    public CachedCrazySupplierClient(ResilientCrazySupplierClient crazySupplierClient,
+                                     SupplierCacheProperties properties,
+                                     @Qualifier("supplierCacheLoaderExecutor") Executor loaderExecutor,
+                                     MeterRegistry meterRegistry,
+                                     ApplicationEventPublisher eventPublisher) {
+        this.crazySupplierClient = crazySupplierClient;
+        this.properties = properties;
+        this.eventPublisher = eventPublisher;
+        this.cache = CaffeineCacheMetrics.monitor(meterRegistry, buildCache(properties,
+                Caffeine.newBuilder().executor(loaderExecutor).recordStats(),
+                (request, executor) -> CompletableFuture.supplyAsync(() -> loadFlights(request), executor)), CACHE_NAME);
+    }
+
+    /**
+     * Whether results are cached, so that their fetch time identifies them.
+     */
+    public boolean isCaching() {
+        return properties.enabled();
+    }
+
+    public CachedFlights getFlights(FlightCrazySupplierRequest request) {
+        if (!properties.enabled()) {
+            return loadFlights(request);
+        }
+        CachedFlights cached;
+        try {
+            cached = cache.get(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        if (cached.fetchedAt().plus(properties.ttl()).isBefore(Instant.now())) {
+            return new CachedFlights(cached.flights(), cached.fetchedAt(), true);
+        }
+        return cached;
+    }
+
+    /**
+     * Fetch time of the cached entry for the request, or empty when a call would not be served from
+     * a fresh entry. Does not load the entry nor count as a cache access.
+     */
+    public Optional<Instant> fetchedAt(FlightCrazySupplierRequest request) {
+        if (!properties.enabled()) {
+            return Optional.empty();
+        }
+        CompletableFuture<CachedFlights> future = cache.asMap().get(request);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        Instant fetchedAt = future.join().fetchedAt();
+        if (fetchedAt.plus(properties.ttl()).isBefore(Instant.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(fetchedAt);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * Supplier cache with the configured expiry, stale-while-revalidate refresh and entry or byte
+     * bound, also used by {@link ReactiveCrazySupplierClient}.
+     */
+    static AsyncLoadingCache<FlightCrazySupplierRequest, CachedFlights> buildCache(SupplierCacheProperties properties,
+                                                                                   Caffeine<Object, Object> builder,
+                                                                                   AsyncCacheLoader<FlightCrazySupplierRequest, CachedFlights> loader) {
+        if (properties.staleWhileRevalidate()) {
+            builder.refreshAfterWrite(properties.ttl())
+                    .expireAfterWrite(properties.maxStaleness());
+        } else {
+            builder.expireAfterWrite(properties.ttl());
+        }
+        if (properties.maximumBytes() != null) {
+            return builder.maximumWeight(properties.maximumBytes().toBytes())
+                    .weigher((FlightCrazySupplierRequest request, CachedFlights cached) ->
+                            REQUEST_WEIGHT_BYTES + cached.flights().size() * FLIGHT_WEIGHT_BYTES)
+                    .buildAsync(loader);
+        }
+        return builder.maximumSize(properties.maximumSize())
+                .buildAsync(loader);
+    }
+
+    private CachedFlights loadFlights(FlightCrazySupplierRequest request) {
+        List<FlightCrazySupplierResponse> flights = crazySupplierClient.getFlights(request);
+        CachedFlights loaded = new CachedFlights(flights == null ? List.of() : List.copyOf(flights), Instant.now(), false);
+        eventPublisher.publishEvent(new CrazySupplierFlightsLoaded(request, loaded.flights()));
+        return loaded;
+    }
+
+}
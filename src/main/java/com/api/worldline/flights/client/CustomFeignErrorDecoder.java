@@ -2,15 +2,31 @@ package com.api.worldline.flights.client;
 
 import feign.Response;
 import feign.codec.ErrorDecoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+/**
+ * Maps supplier error responses to exceptions and counts them in {@code flights.supplier.errors},
+ * tagged with the Feign method, the status code and its series.
+ */
+@RequiredArgsConstructor
 public class CustomFeignErrorDecoder implements ErrorDecoder {
     private final ErrorDecoder defaultDecoder = new Default();
+    private final MeterRegistry meterRegistry;
 
     @Override
     public Exception decode(String methodKey, Response response) {
         HttpStatus status = HttpStatus.valueOf(response.status());
+        Counter.builder("flights.supplier.errors")
+                .description("Error responses of the supplier clients")
+                .tag("method", methodKey)
+                .tag("status", String.valueOf(response.status()))
+                .tag("series", status.series().name())
+                .register(meterRegistry)
+                .increment();
 
         return switch (status.series()) {
             case CLIENT_ERROR ->
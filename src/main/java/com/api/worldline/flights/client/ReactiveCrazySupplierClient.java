@@ -0,0 +1,92 @@
+package com.api.worldline.flights.client;
+
+import com.api.worldline.flights.client.dto.CachedFlights;
+import com.api.worldline.flights.client.dto.CrazySupplierFlightsLoaded;
+import com.api.worldline.flights.client.dto.FlightCrazySupplierRequest;
+import com.api.worldline.flights.client.dto.FlightCrazySupplierResponse;
+import com.api.worldline.flights.config.FlightSearchProperties;
+import com.api.worldline.flights.config.SupplierCacheProperties;
+import com.api.worldline.flights.supplier.CrazyFlightSupplier;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link CachedCrazySupplierClient} for the reactive stack: a
+ * {@link WebClient} call guarded by the same {@code crazySupplier} circuit breaker and bulkhead,
+ * behind an asynchronous cache built like its own, with the same expiry, stale-while-revalidate
+ * refresh and entry or byte bound. No thread waits on the supplier; concurrent misses for the same
+ * request share a single call.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCrazySupplierClient {
+
+    private final WebClient webClient;
+    private final CircuitBreakerOperator<List<FlightCrazySupplierResponse>> circuitBreaker;
+    private final BulkheadOperator<List<FlightCrazySupplierResponse>> bulkhead;
+    private final Duration timeout;
+    private final SupplierCacheProperties cacheProperties;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AsyncLoadingCache<FlightCrazySupplierRequest, CachedFlights> cache;
+
+    public ReactiveCrazySupplierClient(WebClient.Builder webClientBuilder,
+                                       @Value("${feign.crazy-suppliers-url}") String baseUrl,
+                                       CircuitBreakerRegistry circuitBreakerRegistry,
+                                       BulkheadRegistry bulkheadRegistry,
+                                       FlightSearchProperties searchProperties,
+                                       SupplierCacheProperties cacheProperties,
+                                       ApplicationEventPublisher eventPublisher) {
+        this.webClient = webClientBuilder
+                .baseUrl(baseUrl.contains("://") ? baseUrl : "http://" + baseUrl)
+                .build();
+        this.circuitBreaker = CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(ResilientCrazySupplierClient.INSTANCE_NAME));
+        this.bulkhead = BulkheadOperator.of(bulkheadRegistry.bulkhead(ResilientCrazySupplierClient.INSTANCE_NAME));
+        this.timeout = searchProperties.supplierTimeouts().getOrDefault(CrazyFlightSupplier.NAME, searchProperties.supplierTimeout());
+        this.cacheProperties = cacheProperties;
+        this.eventPublisher = eventPublisher;
+        this.cache = CachedCrazySupplierClient.buildCache(cacheProperties, Caffeine.newBuilder(),
+                (request, executor) -> callSupplier(request)
+                        .map(flights -> new CachedFlights(List.copyOf(flights), Instant.now(), false))
+                        .toFuture());
+    }
+
+    public Flux<FlightCrazySupplierResponse> getFlights(FlightCrazySupplierRequest request) {
+        if (cacheProperties.enabled()) {
+            return Mono.fromFuture(() -> cache.get(request)).flatMapIterable(CachedFlights::flights);
+        }
+        return callSupplier(request).flatMapIterable(flights -> flights);
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    private Mono<List<FlightCrazySupplierResponse>> callSupplier(FlightCrazySupplierRequest request) {
+        return webClient.post()
+                .uri("/flights")
+                .bodyValue(request)
+                .retrieve()
+                .bodyToFlux(FlightCrazySupplierResponse.class)
+                .collectList()
+                .doOnNext(flights -> eventPublisher.publishEvent(new CrazySupplierFlightsLoaded(request, flights)))
+                .timeout(timeout)
+                .transformDeferred(bulkhead)
+                .transformDeferred(circuitBreaker);
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.api.worldline.flights.client;
+
+import com.api.worldline.flights.client.dto.FlightCrazySupplierRequest;
+import com.api.worldline.flights.client.dto.FlightCrazySupplierResponse;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Guards {@link CrazySupplierClient} with a circuit breaker and a concurrency bulkhead, both
+ * configured under {@code resilience4j.*.instances.crazySupplier}. While the circuit is open, or
+ * the bulkhead is full, calls fail immediately without touching the network.
+ * State and call metrics are published by the resilience4j actuator endpoints and Micrometer.
+ */
+@Slf4j
+@Component
+public class ResilientCrazySupplierClient {
+
+    static final String INSTANCE_NAME = "crazySupplier";
+
+    private final CrazySupplierClient crazySupplierClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public ResilientCrazySupplierClient(CrazySupplierClient crazySupplierClient,
+                                        CircuitBreakerRegistry circuitBreakerRegistry,
+                                        BulkheadRegistry bulkheadRegistry) {
+        this.crazySupplierClient = crazySupplierClient;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(INSTANCE_NAME);
+        this.bulkhead = bulkheadRegistry.bulkhead(INSTANCE_NAME);
+        this.circuitBreaker.getEventPublisher()
+                .onStateTransition(event -> log.warn("Circuit breaker {} changed state: {}",
+                        INSTANCE_NAME, event.getStateTransition()));
+    }
+
+    public List<FlightCrazySupplierResponse> getFlights(FlightCrazySupplierRequest request) {
+        return circuitBreaker.executeSupplier(
+                Bulkhead.decorateSupplier(bulkhead, () -> crazySupplierClient.getFlights(request)));
+    }
+
+}
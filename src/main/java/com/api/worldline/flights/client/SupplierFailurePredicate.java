@@ -0,0 +1,24 @@
+package com.api.worldline.flights.client;
+
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.function.Predicate;
+
+/**
+ * Decides which supplier errors count as failures for the circuit breaker. Client errors (4xx) are
+ * caused by the request, not by the supplier being unhealthy, so they are not recorded.
+ */
+public class SupplierFailurePredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable throwable) {
+        if (throwable instanceof ResponseStatusException ex) {
+            return ex.getStatusCode().is5xxServerError();
+        }
+        if (throwable instanceof WebClientResponseException ex) {
+            return ex.getStatusCode().is5xxServerError();
+        }
+        return true;
+    }
+}
@@ -0,0 +1,9 @@
+package com.api.worldline.flights.client.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record CachedFlights(List<FlightCrazySupplierResponse> flights,
+                            Instant fetchedAt,
+                            boolean stale) {
+}
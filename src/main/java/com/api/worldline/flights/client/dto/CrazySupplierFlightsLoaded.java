@@ -0,0 +1,18 @@
+package com.api.worldline.flights.client.dto;
+
+import java.util.List;
+
+/**
+ * Published whenever flights are fetched from the CrazySupplier, rather than served from the cache.
+ */
+public record CrazySupplierFlightsLoaded(FlightCrazySupplierRequest request,
+                                         List<FlightCrazySupplierResponse> flights) {
+
+    /**
+     * Whether the fetch returned every flight of each day it covers, which is only known when it
+     * was not filtered by departure or arrival time.
+     */
+    public boolean coversWholeDays() {
+        return request.outboundDate() == null && request.inboundDate() == null;
+    }
+}
@@ -0,0 +1,78 @@
+package com.api.worldline.flights.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Bounded pool used to run the legs of a flight search (database and suppliers) in parallel.
+     * When the queue is full new legs are rejected rather than run on the request thread, where no
+     * timeout would bound them: the search fails for a database leg, and a supplier leg reports
+     * {@code REJECTED}.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor flightSearchExecutor(FlightSearchProperties properties) {
+        FlightSearchProperties.Executor executor = properties.executor();
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setThreadNamePrefix("flight-search-");
+        taskExecutor.setCorePoolSize(executor.coreSize());
+        taskExecutor.setMaxPoolSize(executor.maxSize());
+        taskExecutor.setQueueCapacity(executor.queueCapacity());
+        taskExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return taskExecutor;
+    }
+
+    /**
+     * Virtual-thread variant, used when {@code spring.threads.virtual.enabled} is set: one virtual
+     * thread per leg, so a leg blocked on a slow supplier costs no platform thread. The concurrency
+     * limit makes callers wait instead of running the leg themselves.
+     */
+    @Bean(name = "flightSearchExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualFlightSearchExecutor(VirtualThreadProperties properties) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("flight-search-");
+        taskExecutor.setVirtualThreads(true);
+        taskExecutor.setConcurrencyLimit(properties.searchConcurrencyLimit());
+        return taskExecutor;
+    }
+
+    /**
+     * Pool loading supplier cache entries. Kept apart from the search executor, whose legs block
+     * on the entries they miss: loads queued behind those legs would never start.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor supplierCacheLoaderExecutor(SupplierCacheProperties properties) {
+        SupplierCacheProperties.Loader loader = properties.loader();
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setThreadNamePrefix("supplier-cache-loader-");
+        taskExecutor.setCorePoolSize(loader.threads());
+        taskExecutor.setMaxPoolSize(loader.threads());
+        taskExecutor.setQueueCapacity(loader.queueCapacity());
+        taskExecutor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return taskExecutor;
+    }
+
+    /**
+     * Virtual-thread variant of the loader: one virtual thread per load, without the search
+     * concurrency limit. Legs waiting on a load hold slots of that limit, so loads counted against
+     * it could wait forever for slots that only free up once they complete.
+     */
+    @Bean(name = "supplierCacheLoaderExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor virtualSupplierCacheLoaderExecutor() {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("supplier-cache-loader-");
+        taskExecutor.setVirtualThreads(true);
+        return taskExecutor;
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.api.worldline.flights.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the fare calendar table. Route days touched by writes are recomputed every
+ * {@code refreshInterval}; the whole table is rebuilt from the database on startup. Supplier
+ * entries not fetched again within {@code supplierMaxAge} are removed.
+ */
+@ConfigurationProperties(prefix = "flights.fare-calendar")
+public record FareCalendarProperties(
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("5s")
+        Duration refreshInterval,
+
+        @DefaultValue("1h")
+        Duration supplierMaxAge
+) {
+}
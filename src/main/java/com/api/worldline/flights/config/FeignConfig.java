@@ -1,16 +1,38 @@
 package com.api.worldline.flights.config;
 
+import com.api.worldline.flights.client.CrazySupplierClient;
 import com.api.worldline.flights.client.CustomFeignErrorDecoder;
 import feign.codec.ErrorDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
+import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@EnableFeignClients(basePackageClasses = CrazySupplierClient.class)
 public class FeignConfig {
 
     @Bean
-    public ErrorDecoder errorDecoder() {
-        return new CustomFeignErrorDecoder();
+    public ErrorDecoder errorDecoder(MeterRegistry meterRegistry) {
+        return new CustomFeignErrorDecoder(meterRegistry);
+    }
+
+    /**
+     * Publishes the Apache HttpClient 5 connection pool used by the Feign clients
+     * (httpcomponents.httpclient.pool.* metrics).
+     */
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> connectionManager.ifAvailable(manager -> {
+            if (manager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        });
     }
 
 }
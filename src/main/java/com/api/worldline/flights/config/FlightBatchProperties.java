@@ -0,0 +1,18 @@
+package com.api.worldline.flights.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits of the batch endpoints. Each chunk of {@code chunkSize} flights is written in its own
+ * transaction; keep it a multiple of {@code hibernate.jdbc.batch_size}.
+ */
+@ConfigurationProperties(prefix = "flights.batch")
+public record FlightBatchProperties(
+        @DefaultValue("500")
+        int chunkSize,
+
+        @DefaultValue("50000")
+        int maxItems
+) {
+}
@@ -0,0 +1,34 @@
+package com.api.worldline.flights.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Deduplication of search results: flights with the same airline, route and departure time are
+ * the same physical flight, whichever source returned them, and only one of them is kept.
+ * <p>
+ * With the {@code PREFERRED_SUPPLIER} policy the flight whose supplier comes first in
+ * {@code preferredSuppliers} wins; unlisted suppliers rank last and ties go to the cheapest.
+ */
+@ConfigurationProperties(prefix = "flights.dedup")
+public record FlightDedupProperties(
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("CHEAPEST")
+        Policy policy,
+
+        List<String> preferredSuppliers
+) {
+
+    public FlightDedupProperties {
+        preferredSuppliers = preferredSuppliers == null ? List.of() : List.copyOf(preferredSuppliers);
+    }
+
+    public enum Policy {
+        CHEAPEST,
+        PREFERRED_SUPPLIER
+    }
+}
@@ -0,0 +1,23 @@
+package com.api.worldline.flights.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * HTTP caching of flight searches. Responses carry an ETag that clients send back in
+ * {@code If-None-Match}; with a zero {@code maxAge} they must revalidate on every request.
+ * <p>
+ * ETags rely on writes going through this instance, as the route index does: disable them when
+ * several instances write to the same database.
+ */
+@ConfigurationProperties(prefix = "flights.http-cache")
+public record FlightHttpCacheProperties(
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("0s")
+        Duration maxAge
+) {
+}
@@ -0,0 +1,27 @@
+package com.api.worldline.flights.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * Settings of the flight schedule import. When {@code path} is set, that file is imported once at
+ * startup; its format is taken from the extension ({@code .csv}, {@code .ndjson} or {@code .jsonl}).
+ * Lines longer than {@code maxLineLength} are rejected without being buffered.
+ */
+@ConfigurationProperties(prefix = "flights.import")
+public record FlightImportProperties(
+        Path path,
+
+        @DefaultValue("64KB")
+        DataSize readBufferSize,
+
+        @DefaultValue("64KB")
+        DataSize maxLineLength,
+
+        @DefaultValue("100")
+        int maxReportedRejects
+) {
+}
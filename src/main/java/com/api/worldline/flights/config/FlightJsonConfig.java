@@ -0,0 +1,32 @@
+package com.api.worldline.flights.config;
+
+import com.api.worldline.flights.controller.FlightJsonHttpMessageConverter;
+import com.api.worldline.flights.controller.FlightJsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Puts the flight list converter ahead of Jackson's, so search responses skip the ObjectMapper.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "flights.json", name = "fast-writer", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class FlightJsonConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final FlightJsonProperties properties;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        FlightJsonWriter writer = new FlightJsonWriter(objectMapper, properties.maxCachedStrings());
+        converters.add(0, new FlightJsonHttpMessageConverter(writer));
+    }
+}
@@ -0,0 +1,19 @@
+package com.api.worldline.flights.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * JSON writing of flight lists. When {@code fastWriter} is on, search responses are written by a
+ * dedicated writer producing the same bytes as Jackson; {@code maxCachedStrings} bounds the
+ * airports, airlines and suppliers kept already encoded.
+ */
+@ConfigurationProperties(prefix = "flights.json")
+public record FlightJsonProperties(
+        @DefaultValue("true")
+        boolean fastWriter,
+
+        @DefaultValue("4096")
+        int maxCachedStrings
+) {
+}
@@ -4,19 +4,32 @@ import com.api.worldline.flights.client.dto.FlightCrazySupplierResponse;
 import com.api.worldline.flights.controller.dto.FlightRequest;
 import com.api.worldline.flights.controller.dto.FlightResponse;
 import com.api.worldline.flights.model.Flight;
+import com.api.worldline.flights.supplier.CrazyFlightSupplier;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 
 @Mapper(componentModel = "spring")
 public interface FlightMapper {
     FlightResponse toResponse(Flight flight);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Flight toEntity(FlightRequest dto);
 
+    /**
+     * Overwrites every field, nulls included, like {@code FlightRepository#updateFlight} does for a
+     * single update. A missing fare is stored as 0, as {@link #toEntity} leaves it.
+     */
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "fare", defaultValue = "0")
+    void updateEntity(FlightRequest dto, @MappingTarget Flight flight);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "fare", expression = "java(dto.basePrice() + dto.tax())")
     @Mapping(source = "carrier", target = "airline")
-    @Mapping(target = "supplier", constant = "CrazySupplier")
+    @Mapping(target = "supplier", constant = CrazyFlightSupplier.NAME)
     @Mapping(source = "departureAirportName", target = "departureAirport")
     @Mapping(source = "arrivalAirportName", target = "destinationAirport")
     @Mapping(source = "outboundDateTime", target = "departureTime")
@@ -0,0 +1,47 @@
+package com.api.worldline.flights.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "flights.search")
+public record FlightSearchProperties(
+        @DefaultValue("5s")
+        Duration databaseTimeout,
+
+        @DefaultValue("3s")
+        Duration supplierTimeout,
+
+        Map<String, Duration> supplierTimeouts,
+
+        @DefaultValue("100")
+        int defaultPageSize,
+
+        @DefaultValue("500")
+        int maxPageSize,
+
+        @DefaultValue("true")
+        boolean coalesceSearches,
+
+        @DefaultValue
+        Executor executor
+) {
+
+    public FlightSearchProperties {
+        supplierTimeouts = supplierTimeouts == null ? Map.of() : supplierTimeouts;
+    }
+
+    public record Executor(
+            @DefaultValue("16")
+            int coreSize,
+
+            @DefaultValue("64")
+            int maxSize,
+
+            @DefaultValue("500")
+            int queueCapacity
+    ) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.api.worldline.flights.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings of the in-process cache in front of the supplier clients. When {@code maximumBytes} is
+ * set it takes precedence over {@code maximumSize} and entries are weighed by their estimated
+ * heap footprint.
+ * <p>
+ * With {@code staleWhileRevalidate} enabled, entries older than {@code ttl} are still served and
+ * refreshed in the background; they are only dropped once older than {@code maxStaleness}.
+ * <p>
+ * Entries are loaded on their own pool of {@code loader.threads}, never on the search executor:
+ * search legs block waiting for the entries they miss, so loads queued behind them would never run.
+ * With virtual threads each load gets its own virtual thread instead, and {@code loader} is unused.
+ */
+@ConfigurationProperties(prefix = "flights.supplier-cache")
+public record SupplierCacheProperties(
+        @DefaultValue("true")
+        boolean enabled,
+
+        @DefaultValue("30s")
+        Duration ttl,
+
+        @DefaultValue("10000")
+        long maximumSize,
+
+        DataSize maximumBytes,
+
+        @DefaultValue("false")
+        boolean staleWhileRevalidate,
+
+        @DefaultValue("1h")
+        Duration maxStaleness,
+
+        @DefaultValue
+        Loader loader
+) {
+
+    public record Loader(
+            @DefaultValue("8")
+            int threads,
+
+            @DefaultValue("100")
+            int queueCapacity
+    ) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.api.worldline.flights.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings used when {@code spring.threads.virtual.enabled} is set. Search legs then run on
+ * virtual threads, at most {@code searchConcurrencyLimit} at a time: beyond that callers wait for
+ * a slot instead of piling up calls on the database and the suppliers.
+ * <p>
+ * Virtual threads that stay pinned to their carrier for longer than {@code pinnedThreshold} are
+ * reported in the logs and counted, see {@link VirtualThreadPinningMonitor}.
+ */
+@ConfigurationProperties(prefix = "flights.virtual-threads")
+public record VirtualThreadProperties(
+        @DefaultValue("1000")
+        int searchConcurrencyLimit,
+
+        @DefaultValue("20ms")
+        Duration pinnedThreshold
+) {
+}
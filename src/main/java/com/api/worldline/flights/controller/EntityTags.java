@@ -0,0 +1,50 @@
+package com.api.worldline.flights.controller;
+
+import com.api.worldline.flights.exception.BusinessException;
+
+/**
+ * Parsing of the conditional request headers shared by the servlet and reactive controllers.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Version carried by an If-Match header, null when absent or {@code *}.
+     */
+    static Long toExpectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        try {
+            return Long.valueOf(unquote(ifMatch));
+        } catch (NumberFormatException e) {
+            throw new BusinessException("Invalid If-Match header");
+        }
+    }
+
+    /**
+     * Whether an If-None-Match header lists the ETag, ignoring weak prefixes, or is {@code *}.
+     */
+    static boolean matchesAny(String ifNoneMatch, String etag) {
+        for (String tag : ifNoneMatch.split(",")) {
+            if (tag.trim().equals("*") || unquote(tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String unquote(String etag) {
+        String tag = etag.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        return tag;
+    }
+
+}
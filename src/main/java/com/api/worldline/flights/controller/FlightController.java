@@ -1,37 +1,186 @@
 package com.api.worldline.flights.controller;
 
+import com.api.worldline.flights.config.FlightHttpCacheProperties;
+import com.api.worldline.flights.config.FlightSearchProperties;
+import com.api.worldline.flights.controller.dto.FareCalendarDay;
+import com.api.worldline.flights.controller.dto.FlightBatchResponse;
+import com.api.worldline.flights.controller.dto.FlightBatchUpdateRequest;
+import com.api.worldline.flights.controller.dto.FlightImportReport;
 import com.api.worldline.flights.controller.dto.FlightRequest;
 import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.exception.BusinessException;
+import com.api.worldline.flights.importer.FlightImportFormat;
+import com.api.worldline.flights.importer.FlightImportService;
+import com.api.worldline.flights.service.FareCalendarService;
+import com.api.worldline.flights.service.FlightAggregationService;
+import com.api.worldline.flights.service.FlightBatchService;
+import com.api.worldline.flights.service.FlightSearchETags;
 import com.api.worldline.flights.service.FlightService;
+import com.api.worldline.flights.service.FlightStreamService;
+import com.api.worldline.flights.service.dto.FlightCursor;
+import com.api.worldline.flights.service.dto.FlightPageRequest;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import com.api.worldline.flights.service.dto.FlightSearchResult;
+import com.api.worldline.flights.service.dto.FlightSort;
+import com.api.worldline.flights.service.dto.VersionedFlight;
+import com.api.worldline.flights.supplier.SupplierStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Validated
 @RestController
 @RequestMapping("/api/flights")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 public class FlightController {
 
+    static final String SUPPLIER_STATUS_HEADER = "X-Supplier-Status";
+    static final String NEXT_PAGE_TOKEN_HEADER = "X-Next-Page-Token";
+
     private final FlightService flightService;
+    private final FlightAggregationService flightAggregationService;
+    private final FareCalendarService fareCalendarService;
+    private final FlightStreamService flightStreamService;
+    private final FlightBatchService flightBatchService;
+    private final FlightImportService flightImportService;
+    private final ObjectMapper objectMapper;
+    private final FlightSearchProperties flightSearchProperties;
+    private final FlightSearchETags flightSearchETags;
+    private final FlightHttpCacheProperties flightHttpCacheProperties;
 
     @GetMapping
-    @Operation(summary = "Get all flights, from database and suppliers")
+    @Operation(summary = "Get all flights, from database and suppliers, one page at a time ordered by departure time, or only the first ones in fare or departure time order")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully retrieved list of flights")
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list of flights",
+                    headers = {
+                            @Header(name = SUPPLIER_STATUS_HEADER, description = "Status of each supplier, e.g. CrazySupplier=OK"),
+                            @Header(name = NEXT_PAGE_TOKEN_HEADER, description = "Token of the next page, absent on the last page"),
+                            @Header(name = HttpHeaders.ETAG, description = "Version of the page, absent when a supplier did not answer normally")
+                    }),
+            @ApiResponse(responseCode = "304", description = "The page did not change since the ETag given in If-None-Match")
     })
-    public List<FlightResponse> getFlights(
+    public ResponseEntity<List<FlightResponse>> getFlights(
+            @Parameter(description = "Airline name")
+            @RequestParam(required = false) String airline,
+
+            @Parameter(description = "3-letter departure airport code")
+            @RequestParam(required = false)
+            @Size(min = 3, max = 3, message = "Departure airport code must be exactly 3 characters")
+
+            String departureAirport,
+            @Parameter(description = "3-letter destination airport code")
+            @RequestParam(required = false)
+            @Size(min = 3, max = 3, message = "Destination airport code must be exactly 3 characters")
+
+            String destinationAirport,
+            @Parameter(description = "Departure time in ISO-8601 format")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departureTime,
+
+            @Parameter(description = "Arrival time in ISO-8601 format")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime arrivalTime,
+
+            @Parameter(description = "Token returned in the X-Next-Page-Token header of the previous page")
+            @RequestParam(required = false) String pageToken,
+
+            @Parameter(description = "Maximum number of flights in the page, capped by the server")
+            @RequestParam(required = false)
+            @Min(value = 1, message = "Page size must be at least 1")
+            Integer pageSize,
+
+            @Parameter(description = "Order of the flights: departureTime (default, paginated) or fare (cheapest first, single page)")
+            @RequestParam(required = false) String sort,
+
+            @Parameter(description = "Return only the first flights in the sort order, in a single page; capped by the server")
+            @RequestParam(required = false)
+            @Min(value = 1, message = "Limit must be at least 1")
+            Integer limit,
+
+            @Parameter(description = "ETag of the page as last read, to get a 304 if it did not change since")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        FlightSearchCriteria criteria = new FlightSearchCriteria(airline, departureAirport, destinationAirport, departureTime, arrivalTime);
+        FlightSort flightSort = FlightSort.of(sort);
+        boolean topOnly = limit != null || flightSort != FlightSort.DEPARTURE_TIME;
+        if (topOnly && pageToken != null) {
+            throw new BusinessException("Page tokens are only supported when sorting by departureTime without limit");
+        }
+        FlightPageRequest pageRequest = topOnly ? null : new FlightPageRequest(
+                pageToken == null ? null : FlightCursor.decode(pageToken),
+                pageSize == null ? flightSearchProperties.defaultPageSize() : Math.min(pageSize, flightSearchProperties.maxPageSize())
+        );
+        int topLimit = limit == null ? flightSearchProperties.defaultPageSize() : Math.min(limit, flightSearchProperties.maxPageSize());
+
+        long dataVersion = flightSearchETags.dataVersion();
+        Function<Optional<String>, Optional<String>> etagOf = topOnly
+                ? supplierVersion -> flightSearchETags.of(dataVersion, supplierVersion, criteria, flightSort, topLimit)
+                : supplierVersion -> flightSearchETags.of(dataVersion, supplierVersion, criteria, pageRequest);
+        if (flightHttpCacheProperties.enabled() && ifNoneMatch != null) {
+            Optional<String> etag = etagOf.apply(flightSearchETags.supplierVersion(criteria));
+            if (etag.isPresent() && EntityTags.matchesAny(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag.get())
+                        .cacheControl(cacheControl())
+                        .build();
+            }
+        }
+        FlightSearchResult result = topOnly
+                ? flightService.searchTopFlights(criteria, flightSort, topLimit)
+                : flightService.searchFlights(criteria, pageRequest);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(SUPPLIER_STATUS_HEADER, toHeaderValue(result.supplierStatuses()));
+        if (result.nextPageToken() != null) {
+            response.header(NEXT_PAGE_TOKEN_HEADER, result.nextPageToken());
+        }
+        if (flightHttpCacheProperties.enabled()) {
+            Optional<String> etag = allOk(result.supplierStatuses())
+                    ? etagOf.apply(flightSearchETags.supplierVersion(result))
+                    : Optional.empty();
+            etag.ifPresentOrElse(
+                    tag -> response.eTag(tag).cacheControl(cacheControl()),
+                    () -> response.cacheControl(CacheControl.noStore()));
+        }
+        return response.body(result.flights());
+    }
+
+    @GetMapping("/cheapest")
+    @Operation(summary = "Get the cheapest flight of each route and departure day, from database and suppliers")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cheapest flights, ordered by route then day")
+    })
+    public List<FlightResponse> getCheapestFlights(
             @Parameter(description = "Airline name")
             @RequestParam(required = false) String airline,
 
@@ -53,7 +202,66 @@ public class FlightController {
             @RequestParam(required = false)
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
             LocalDateTime arrivalTime) {
-        return flightService.getFlights(airline, departureAirport, destinationAirport, departureTime, arrivalTime);
+        FlightSearchCriteria criteria = new FlightSearchCriteria(airline, departureAirport, destinationAirport, departureTime, arrivalTime);
+        return flightAggregationService.cheapestPerRouteAndDay(criteria);
+    }
+
+    @GetMapping("/calendar")
+    @Operation(summary = "Get the cheapest fare, average fare and number of flights of each day of a month on a route, from database and suppliers")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Days of the month with flights, in order; refreshed a few seconds after writes")
+    })
+    public List<FareCalendarDay> getFareCalendar(
+            @Parameter(description = "3-letter departure airport code")
+            @RequestParam
+            @Size(min = 3, max = 3, message = "Departure airport code must be exactly 3 characters")
+            String departureAirport,
+
+            @Parameter(description = "3-letter destination airport code")
+            @RequestParam
+            @Size(min = 3, max = 3, message = "Destination airport code must be exactly 3 characters")
+            String destinationAirport,
+
+            @Parameter(description = "Month in yyyy-MM format", example = "2025-07")
+            @RequestParam
+            @DateTimeFormat(pattern = "yyyy-MM")
+            YearMonth month) {
+        return fareCalendarService.month(departureAirport, destinationAirport, month);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all flights as newline-delimited JSON, from database and suppliers, as each source answers")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully started streaming flights")
+    })
+    public ResponseEntity<StreamingResponseBody> streamFlights(
+            @Parameter(description = "Airline name")
+            @RequestParam(required = false) String airline,
+
+            @Parameter(description = "3-letter departure airport code")
+            @RequestParam(required = false)
+            @Size(min = 3, max = 3, message = "Departure airport code must be exactly 3 characters")
+
+            String departureAirport,
+            @Parameter(description = "3-letter destination airport code")
+            @RequestParam(required = false)
+            @Size(min = 3, max = 3, message = "Destination airport code must be exactly 3 characters")
+
+            String destinationAirport,
+            @Parameter(description = "Departure time in ISO-8601 format")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departureTime,
+
+            @Parameter(description = "Arrival time in ISO-8601 format")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime arrivalTime) {
+        FlightSearchCriteria criteria = new FlightSearchCriteria(airline, departureAirport, destinationAirport, departureTime, arrivalTime);
+        StreamingResponseBody body = outputStream ->
+                flightStreamService.streamFlights(criteria, new NdjsonFlightSink(objectMapper, outputStream));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @ResponseStatus(HttpStatus.CREATED)
@@ -66,13 +274,36 @@ public class FlightController {
         return flightService.saveFlightInfo(flightRequest);
     }
 
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a flight from database, with its version as ETag")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the flight",
+                    headers = @Header(name = HttpHeaders.ETAG, description = "Version of the flight, to send back in If-Match"))
+    })
+    public ResponseEntity<FlightResponse> getFlightInfo(@Parameter(description = "Unique identifier of the flight from database") @PathVariable Long id) {
+        VersionedFlight versionedFlight = flightService.getFlightInfo(id);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(versionedFlight.version()))
+                .body(versionedFlight.flight());
+    }
+
     @PutMapping
     @Operation(summary = "Update an existing flight information")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Successfully updated a flight")
+            @ApiResponse(responseCode = "200", description = "Successfully updated a flight",
+                    headers = @Header(name = HttpHeaders.ETAG, description = "New version of the flight, when If-Match was sent")),
+            @ApiResponse(responseCode = "412", description = "The flight changed since the version given in If-Match")
     })
-    public void updateFlightInfo(@Parameter(description = "Unique identifier of the flight from database") @RequestParam Long id, @RequestBody @Valid FlightRequest flightRequest) {
-        flightService.updateFlightInfo(id, flightRequest);
+    public ResponseEntity<Void> updateFlightInfo(@Parameter(description = "Unique identifier of the flight from database") @RequestParam Long id,
+                                                 @Parameter(description = "ETag of the flight as last read, to reject the update if it changed since")
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                 @RequestBody @Valid FlightRequest flightRequest) {
+        Long version = flightService.updateFlightInfo(id, EntityTags.toExpectedVersion(ifMatch), flightRequest);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (version != null) {
+            response.eTag(String.valueOf(version));
+        }
+        return response.build();
     }
 
     @ResponseStatus(HttpStatus.NO_CONTENT)
@@ -85,4 +316,59 @@ public class FlightController {
         flightService.deleteFlightInfo(id);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Create many flights at once, reporting the outcome of each one")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the result of each item")
+    })
+    public FlightBatchResponse saveFlightInfos(@RequestBody List<FlightRequest> flightRequests) {
+        return flightBatchService.saveFlightInfos(flightRequests);
+    }
+
+    @PutMapping("/batch")
+    @Operation(summary = "Update many flights at once, reporting the outcome of each one")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the result of each item")
+    })
+    public FlightBatchResponse updateFlightInfos(@RequestBody List<FlightBatchUpdateRequest> updateRequests) {
+        return flightBatchService.updateFlightInfos(updateRequests);
+    }
+
+    @DeleteMapping("/batch")
+    @Operation(summary = "Delete many flights at once, reporting the outcome of each one")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, see the result of each item")
+    })
+    public FlightBatchResponse deleteFlightInfos(@RequestBody List<Long> ids) {
+        return flightBatchService.deleteFlightInfos(ids);
+    }
+
+    @PostMapping(value = "/import", consumes = {FlightImportFormat.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Import a flight schedule streamed as CSV (with a header line) or newline-delimited JSON")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished, see the report for rejected lines")
+    })
+    public FlightImportReport importFlights(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                            HttpServletRequest request) throws IOException {
+        return flightImportService.importFlights(
+                Channels.newChannel(request.getInputStream()),
+                FlightImportFormat.of(MediaType.parseMediaType(contentType)));
+    }
+
+    private CacheControl cacheControl() {
+        Duration maxAge = flightHttpCacheProperties.maxAge();
+        return maxAge.isZero() ? CacheControl.noCache() : CacheControl.maxAge(maxAge);
+    }
+
+    private static boolean allOk(Map<String, SupplierStatus> supplierStatuses) {
+        return supplierStatuses.values().stream().allMatch(status -> status == SupplierStatus.OK);
+    }
+
+    private static String toHeaderValue(Map<String, SupplierStatus> supplierStatuses) {
+        return supplierStatuses.entrySet()
+                .stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(", "));
+    }
+
 }
@@ -0,0 +1,73 @@
+package com.api.worldline.flights.controller;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes {@code List<FlightResponse>} return values as JSON with {@link FlightJsonWriter}. Only
+ * registered ahead of Jackson's converter; every other type, and reading, is left to Jackson.
+ */
+public class FlightJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<FlightResponse>> {
+
+    private final FlightJsonWriter flightJsonWriter;
+
+    public FlightJsonHttpMessageConverter(FlightJsonWriter flightJsonWriter) {
+        super(MediaType.APPLICATION_JSON);
+        this.flightJsonWriter = flightJsonWriter;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return type != null && isFlightList(type) && supports(clazz) && canWrite(mediaType);
+    }
+
+    @Override
+    protected void writeInternal(List<FlightResponse> flights, Type type, HttpOutputMessage outputMessage) throws IOException {
+        flightJsonWriter.write(flights, outputMessage.getBody());
+    }
+
+    @Override
+    public List<FlightResponse> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Flight lists are read by Jackson", inputMessage);
+    }
+
+    @Override
+    protected List<FlightResponse> readInternal(Class<? extends List<FlightResponse>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Flight lists are read by Jackson", inputMessage);
+    }
+
+    private static boolean isFlightList(Type type) {
+        ResolvableType resolvableType = ResolvableType.forType(type);
+        return List.class.isAssignableFrom(resolvableType.toClass())
+                && resolvableType.asCollection().resolveGeneric(0) == FlightResponse.class;
+    }
+}
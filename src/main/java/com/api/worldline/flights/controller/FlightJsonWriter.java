@@ -0,0 +1,285 @@
+package com.api.worldline.flights.controller;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Writes flights as a JSON array, byte for byte as the application's ObjectMapper does, straight
+ * into the output stream through a fixed buffer. Field names are encoded once; airports, airlines
+ * and suppliers are encoded once per distinct value and cached; ids, fares in cents and dates are
+ * formatted digit by digit into the buffer. Values outside these fast paths (strings needing
+ * escapes, fares that are not whole cents, years beyond 9999) are formatted like Jackson formats
+ * them. Dates are only formatted here as ISO strings, as Spring Boot configures the mapper; when
+ * the mapper writes dates as timestamps they are left to it.
+ */
+public class FlightJsonWriter {
+
+    static final int BUFFER_SIZE = 8192;
+
+    private static final byte[] ID = ascii("{\"id\":");
+    private static final byte[] AIRLINE = ascii(",\"airline\":");
+    private static final byte[] SUPPLIER = ascii(",\"supplier\":");
+    private static final byte[] FARE = ascii(",\"fare\":");
+    private static final byte[] DEPARTURE_AIRPORT = ascii(",\"departureAirport\":");
+    private static final byte[] DESTINATION_AIRPORT = ascii(",\"destinationAirport\":");
+    private static final byte[] DEPARTURE_TIME = ascii(",\"departureTime\":");
+    private static final byte[] ARRIVAL_TIME = ascii(",\"arrivalTime\":");
+    private static final byte[] NULL = ascii("null");
+
+    /** Longest value written without going through {@link Buffer#write(byte[])}: a quoted date. */
+    private static final int MAX_VALUE_LENGTH = 32;
+    private static final double MAX_PLAIN_FARE = 1e7;
+
+    private final ObjectMapper objectMapper;
+    private final boolean datesAsTimestamps;
+    private final int maxCachedStrings;
+    private final Map<String, byte[]> encodedStrings = new ConcurrentHashMap<>();
+
+    public FlightJsonWriter(ObjectMapper objectMapper, int maxCachedStrings) {
+        this.objectMapper = objectMapper;
+        this.datesAsTimestamps = objectMapper.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.maxCachedStrings = maxCachedStrings;
+    }
+
+    public void write(List<FlightResponse> flights, OutputStream outputStream) throws IOException {
+        Buffer buffer = new Buffer(outputStream);
+        buffer.put('[');
+        for (int i = 0; i < flights.size(); i++) {
+            if (i > 0) {
+                buffer.put(',');
+            }
+            writeFlight(flights.get(i), buffer);
+        }
+        buffer.put(']');
+        buffer.flush();
+    }
+
+    private void writeFlight(FlightResponse flight, Buffer buffer) throws IOException {
+        if (flight == null) {
+            buffer.write(NULL);
+            return;
+        }
+        buffer.write(ID);
+        writeId(flight.id(), buffer);
+        buffer.write(AIRLINE);
+        writeString(flight.airline(), buffer);
+        buffer.write(SUPPLIER);
+        writeString(flight.supplier(), buffer);
+        buffer.write(FARE);
+        writeFare(flight.fare(), buffer);
+        buffer.write(DEPARTURE_AIRPORT);
+        writeString(flight.departureAirport(), buffer);
+        buffer.write(DESTINATION_AIRPORT);
+        writeString(flight.destinationAirport(), buffer);
+        buffer.write(DEPARTURE_TIME);
+        writeDateTime(flight.departureTime(), buffer);
+        buffer.write(ARRIVAL_TIME);
+        writeDateTime(flight.arrivalTime(), buffer);
+        buffer.put('}');
+    }
+
+    private static void writeId(Long id, Buffer buffer) throws IOException {
+        if (id == null) {
+            buffer.write(NULL);
+        } else if (id == Long.MIN_VALUE) {
+            buffer.write(ascii(Long.toString(id)));
+        } else {
+            buffer.ensure(MAX_VALUE_LENGTH);
+            long value = id;
+            if (value < 0) {
+                buffer.put('-');
+                value = -value;
+            }
+            buffer.putDigits(value);
+        }
+    }
+
+    private void writeString(String value, Buffer buffer) throws IOException {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+        byte[] encoded = encodedStrings.get(value);
+        if (encoded == null) {
+            encoded = encode(value);
+            if (encodedStrings.size() < maxCachedStrings) {
+                encodedStrings.putIfAbsent(value, encoded);
+            }
+        }
+        buffer.write(encoded);
+    }
+
+    private byte[] encode(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x20 || c > 0x7e || c == '"' || c == '\\') {
+                return objectMapper.writeValueAsBytes(value);
+            }
+        }
+        return ascii("\"" + value + "\"");
+    }
+
+    /**
+     * Jackson writes doubles with {@link Double#toString}. Below 10^7 a fare in whole cents is the
+     * shortest decimal of its double, so it is written as {@code int.frac} with trailing zeros
+     * dropped but one fraction digit kept, as {@code Double.toString} does.
+     */
+    private void writeFare(Double fare, Buffer buffer) throws IOException {
+        if (fare == null) {
+            buffer.write(NULL);
+            return;
+        }
+        double value = fare;
+        long cents = Math.round(value * 100);
+        if (cents == 0 || Math.abs(value) >= MAX_PLAIN_FARE || cents / 100.0 != value) {
+            String formatted = Double.toString(value);
+            buffer.write(Double.isFinite(value) ? ascii(formatted) : encode(formatted));
+            return;
+        }
+        buffer.ensure(MAX_VALUE_LENGTH);
+        if (cents < 0) {
+            buffer.put('-');
+            cents = -cents;
+        }
+        buffer.putDigits(cents / 100);
+        buffer.put('.');
+        int fraction = (int) (cents % 100);
+        if (fraction % 10 == 0) {
+            buffer.put((char) ('0' + fraction / 10));
+        } else {
+            buffer.putTwoDigits(fraction);
+        }
+    }
+
+    /**
+     * {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}, which Jackson uses for {@code LocalDateTime}:
+     * seconds are always written, the fraction only when non-zero and without trailing zeros.
+     */
+    private void writeDateTime(LocalDateTime value, Buffer buffer) throws IOException {
+        if (value == null) {
+            buffer.write(NULL);
+            return;
+        }
+        if (datesAsTimestamps) {
+            buffer.write(objectMapper.writeValueAsBytes(value));
+            return;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            buffer.write(ascii("\"" + DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value) + "\""));
+            return;
+        }
+        buffer.ensure(MAX_VALUE_LENGTH);
+        buffer.put('"');
+        buffer.putTwoDigits(year / 100);
+        buffer.putTwoDigits(year % 100);
+        buffer.put('-');
+        buffer.putTwoDigits(value.getMonthValue());
+        buffer.put('-');
+        buffer.putTwoDigits(value.getDayOfMonth());
+        buffer.put('T');
+        buffer.putTwoDigits(value.getHour());
+        buffer.put(':');
+        buffer.putTwoDigits(value.getMinute());
+        buffer.put(':');
+        buffer.putTwoDigits(value.getSecond());
+        int nano = value.getNano();
+        if (nano != 0) {
+            buffer.put('.');
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            buffer.putPaddedDigits(nano, digits);
+        }
+        buffer.put('"');
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Bytes not yet handed to the output stream. Values are formatted in place after
+     * {@link #ensure} has made room for them.
+     */
+    private static final class Buffer {
+
+        private final OutputStream outputStream;
+        private final byte[] bytes = new byte[BUFFER_SIZE];
+        private int position;
+
+        Buffer(OutputStream outputStream) {
+            this.outputStream = outputStream;
+        }
+
+        void ensure(int length) throws IOException {
+            if (position + length > bytes.length) {
+                flushBuffer();
+            }
+        }
+
+        void put(char c) throws IOException {
+            if (position == bytes.length) {
+                flushBuffer();
+            }
+            bytes[position++] = (byte) c;
+        }
+
+        void write(byte[] value) throws IOException {
+            if (value.length > bytes.length - position) {
+                flushBuffer();
+                if (value.length > bytes.length) {
+                    outputStream.write(value);
+                    return;
+                }
+            }
+            System.arraycopy(value, 0, bytes, position, value.length);
+            position += value.length;
+        }
+
+        void putTwoDigits(int value) {
+            bytes[position++] = (byte) ('0' + value / 10);
+            bytes[position++] = (byte) ('0' + value % 10);
+        }
+
+        void putDigits(long value) {
+            int digits = 1;
+            for (long rest = value / 10; rest > 0; rest /= 10) {
+                digits++;
+            }
+            putPaddedDigits(value, digits);
+        }
+
+        void putPaddedDigits(long value, int digits) {
+            for (int i = position + digits - 1; i >= position; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            position += digits;
+        }
+
+        void flush() throws IOException {
+            flushBuffer();
+            outputStream.flush();
+        }
+
+        private void flushBuffer() throws IOException {
+            if (position > 0) {
+                outputStream.write(bytes, 0, position);
+                position = 0;
+            }
+        }
+    }
+}
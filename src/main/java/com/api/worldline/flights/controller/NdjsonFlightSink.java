@@ -0,0 +1,36 @@
+package com.api.worldline.flights.controller;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.service.FlightSink;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes flights as newline-delimited JSON, one object per line.
+ */
+class NdjsonFlightSink implements FlightSink {
+
+    private final ObjectWriter writer;
+    private final OutputStream outputStream;
+
+    NdjsonFlightSink(ObjectMapper objectMapper, OutputStream outputStream) {
+        this.writer = objectMapper.writerFor(FlightResponse.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.outputStream = outputStream;
+    }
+
+    @Override
+    public void write(FlightResponse flight) throws IOException {
+        writer.writeValue(outputStream, flight);
+        outputStream.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        outputStream.flush();
+    }
+}
@@ -0,0 +1,123 @@
+package com.api.worldline.flights.controller;
+
+import com.api.worldline.flights.controller.dto.FlightRequest;
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.service.ReactiveFlightService;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flight API on the reactive stack, active when the application runs as a reactive web
+ * application (see the {@code reactive} profile). Searches are not paginated: flights are emitted
+ * as each source answers, as a JSON array or, with {@code Accept: application/x-ndjson}, one line
+ * at a time.
+ */
+@Validated
+@RestController
+@RequestMapping("/api/flights")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveFlightController {
+
+    private final ReactiveFlightService reactiveFlightService;
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Get all flights, from database and suppliers, in the order sources answer")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved list of flights")
+    })
+    public Flux<FlightResponse> getFlights(
+            @Parameter(description = "Airline name")
+            @RequestParam(required = false) String airline,
+
+            @Parameter(description = "3-letter departure airport code")
+            @RequestParam(required = false)
+            @Size(min = 3, max = 3, message = "Departure airport code must be exactly 3 characters")
+
+            String departureAirport,
+            @Parameter(description = "3-letter destination airport code")
+            @RequestParam(required = false)
+            @Size(min = 3, max = 3, message = "Destination airport code must be exactly 3 characters")
+
+            String destinationAirport,
+            @Parameter(description = "Departure time in ISO-8601 format")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime departureTime,
+
+            @Parameter(description = "Arrival time in ISO-8601 format")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime arrivalTime) {
+        FlightSearchCriteria criteria = new FlightSearchCriteria(airline, departureAirport, destinationAirport, departureTime, arrivalTime);
+        return reactiveFlightService.searchFlights(criteria);
+    }
+
+    @ResponseStatus(HttpStatus.CREATED)
+    @PostMapping
+    @Operation(summary = "Create a new flight information")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Successfully created a flight")
+    })
+    public Mono<FlightResponse> saveFlightInfo(@RequestBody @Valid FlightRequest flightRequest) {
+        return reactiveFlightService.saveFlightInfo(flightRequest);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a flight from database, with its version as ETag")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved the flight",
+                    headers = @Header(name = HttpHeaders.ETAG, description = "Version of the flight, to send back in If-Match"))
+    })
+    public Mono<ResponseEntity<FlightResponse>> getFlightInfo(@Parameter(description = "Unique identifier of the flight from database") @PathVariable Long id) {
+        return reactiveFlightService.getFlightInfo(id)
+                .map(versionedFlight -> ResponseEntity.ok()
+                        .eTag(String.valueOf(versionedFlight.version()))
+                        .body(versionedFlight.flight()));
+    }
+
+    @PutMapping
+    @Operation(summary = "Update an existing flight information")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully updated a flight",
+                    headers = @Header(name = HttpHeaders.ETAG, description = "New version of the flight, when If-Match was sent")),
+            @ApiResponse(responseCode = "412", description = "The flight changed since the version given in If-Match")
+    })
+    public Mono<ResponseEntity<Void>> updateFlightInfo(@Parameter(description = "Unique identifier of the flight from database") @RequestParam Long id,
+                                                       @Parameter(description = "ETag of the flight as last read, to reject the update if it changed since")
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                       @RequestBody @Valid FlightRequest flightRequest) {
+        return reactiveFlightService.updateFlightInfo(id, EntityTags.toExpectedVersion(ifMatch), flightRequest)
+                .map(version -> ResponseEntity.ok().eTag(String.valueOf(version)).<Void>build())
+                .defaultIfEmpty(ResponseEntity.ok().build());
+    }
+
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @DeleteMapping
+    @Operation(summary = "Delete an existing flight information")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Successfully deleted a flight")
+    })
+    public Mono<Void> deleteFlightInfo(@RequestParam Long id) {
+        return reactiveFlightService.deleteFlightInfo(id);
+    }
+
+}
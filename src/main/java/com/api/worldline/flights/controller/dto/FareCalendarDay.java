@@ -0,0 +1,20 @@
+package com.api.worldline.flights.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+public record FareCalendarDay(
+        @Schema(description = "Departure day", example = "2025-07-01")
+        LocalDate day,
+
+        @Schema(description = "Cheapest fare of the day", example = "199.99")
+        Double minFare,
+
+        @Schema(description = "Average fare of the day", example = "312.50")
+        Double averageFare,
+
+        @Schema(description = "Number of flights of the day", example = "12")
+        Long flightCount
+) {
+}
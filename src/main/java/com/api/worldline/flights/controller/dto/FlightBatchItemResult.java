@@ -0,0 +1,28 @@
+package com.api.worldline.flights.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record FlightBatchItemResult(
+        @Schema(description = "Position of the item in the request", example = "0")
+        int index,
+
+        @Schema(description = "Unique identifier of the flight from database", example = "123")
+        Long id,
+
+        @Schema(description = "Outcome of the item", example = "CREATED")
+        FlightBatchItemStatus status,
+
+        @Schema(description = "Reasons the item was not applied", example = "[Departure airport code must be exactly 3 characters]")
+        List<String> messages
+) {
+
+    public static FlightBatchItemResult of(int index, Long id, FlightBatchItemStatus status) {
+        return new FlightBatchItemResult(index, id, status, List.of());
+    }
+
+    public static FlightBatchItemResult of(int index, Long id, FlightBatchItemStatus status, List<String> messages) {
+        return new FlightBatchItemResult(index, id, status, messages);
+    }
+}
@@ -0,0 +1,22 @@
+package com.api.worldline.flights.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record FlightBatchResponse(
+        @Schema(description = "Number of items applied", example = "2")
+        int succeeded,
+
+        @Schema(description = "Number of items rejected or failed", example = "1")
+        int failed,
+
+        @Schema(description = "Outcome of each item, in request order")
+        List<FlightBatchItemResult> results
+) {
+
+    public static FlightBatchResponse of(List<FlightBatchItemResult> results) {
+        int succeeded = (int) results.stream().filter(result -> result.status().isSuccess()).count();
+        return new FlightBatchResponse(succeeded, results.size() - succeeded, results);
+    }
+}
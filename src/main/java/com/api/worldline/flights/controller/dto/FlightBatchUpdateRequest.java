@@ -0,0 +1,12 @@
+package com.api.worldline.flights.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public record FlightBatchUpdateRequest(
+        @Schema(description = "Unique identifier of the flight from database", example = "123")
+        Long id,
+
+        @Schema(description = "New flight information")
+        FlightRequest flight
+) {
+}
@@ -0,0 +1,14 @@
+package com.api.worldline.flights.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record FlightImportReject(
+        @Schema(description = "Line of the file, starting at 1", example = "42")
+        long line,
+
+        @Schema(description = "Reasons the line was rejected", example = "[Departure airport code must be exactly 3 characters]")
+        List<String> messages
+) {
+}
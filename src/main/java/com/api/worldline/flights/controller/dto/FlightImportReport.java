@@ -0,0 +1,23 @@
+package com.api.worldline.flights.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+public record FlightImportReport(
+        @Schema(description = "Number of flights imported", example = "120000")
+        long imported,
+
+        @Schema(description = "Number of lines rejected", example = "3")
+        long rejected,
+
+        @Schema(description = "Duration of the import in milliseconds", example = "2400")
+        long durationMillis,
+
+        @Schema(description = "Imported flights per second", example = "50000.0")
+        double flightsPerSecond,
+
+        @Schema(description = "First rejected lines, up to flights.import.max-reported-rejects")
+        List<FlightImportReject> rejects
+) {
+}
@@ -0,0 +1,8 @@
+package com.api.worldline.flights.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,125 @@
+package com.api.worldline.flights.importer;
+
+import com.api.worldline.flights.controller.dto.FlightRequest;
+import com.api.worldline.flights.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Comma-separated flights with a header line naming the {@link FlightRequest} fields, in any order
+ * and case, with or without underscores. Values may be double-quoted; empty values are null.
+ */
+final class CsvFlightLineParser implements FlightLineParser {
+
+    private static final List<String> FIELDS = List.of(
+            "airline", "supplier", "fare", "departureairport", "destinationairport", "departuretime", "arrivaltime");
+
+    private int[] fieldOfColumn;
+
+    @Override
+    public FlightRequest parse(byte[] bytes, int offset, int length) {
+        List<String> values = split(new String(bytes, offset, length, StandardCharsets.UTF_8));
+        if (fieldOfColumn == null) {
+            readHeader(values);
+            return null;
+        }
+        if (values.size() != fieldOfColumn.length) {
+            throw new IllegalArgumentException("Expected " + fieldOfColumn.length + " columns but found " + values.size());
+        }
+
+        String[] fields = new String[FIELDS.size()];
+        for (int column = 0; column < values.size(); column++) {
+            fields[fieldOfColumn[column]] = values.get(column);
+        }
+        return new FlightRequest(
+                fields[0],
+                fields[1],
+                fare(fields[2]),
+                fields[3],
+                fields[4],
+                time(fields[5], "departureTime"),
+                time(fields[6], "arrivalTime")
+        );
+    }
+
+    private void readHeader(List<String> columns) {
+        int[] fieldOfColumn = new int[columns.size()];
+        boolean[] seen = new boolean[FIELDS.size()];
+        for (int column = 0; column < columns.size(); column++) {
+            String name = columns.get(column) == null ? "" : columns.get(column);
+            if (column == 0 && name.startsWith("\uFEFF")) {
+                name = name.substring(1);
+            }
+            int field = FIELDS.indexOf(name.replace("_", "").toLowerCase(Locale.ROOT));
+            if (field < 0 || seen[field]) {
+                throw new BusinessException("Unknown or duplicated CSV column: " + name);
+            }
+            seen[field] = true;
+            fieldOfColumn[column] = field;
+        }
+        this.fieldOfColumn = fieldOfColumn;
+    }
+
+    private static Double fare(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid fare: " + value);
+        }
+    }
+
+    private static LocalDateTime time(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    static List<String> split(String line) {
+        List<String> values = new ArrayList<>(FIELDS.size());
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(emptyToNull(value));
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted value");
+        }
+        values.add(emptyToNull(value));
+        return values;
+    }
+
+    private static String emptyToNull(StringBuilder value) {
+        String trimmed = value.toString().trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
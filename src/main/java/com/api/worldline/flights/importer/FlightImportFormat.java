@@ -0,0 +1,35 @@
+package com.api.worldline.flights.importer;
+
+import com.api.worldline.flights.exception.BusinessException;
+import org.springframework.http.MediaType;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+public enum FlightImportFormat {
+    CSV,
+    NDJSON;
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    public static FlightImportFormat of(MediaType mediaType) {
+        if (mediaType != null && mediaType.isCompatibleWith(MediaType.valueOf(TEXT_CSV_VALUE))) {
+            return CSV;
+        }
+        if (mediaType != null && mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+            return NDJSON;
+        }
+        throw new BusinessException("Unsupported import content type, use " + TEXT_CSV_VALUE + " or " + MediaType.APPLICATION_NDJSON_VALUE);
+    }
+
+    public static FlightImportFormat of(Path path) {
+        String fileName = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (fileName.endsWith(".csv")) {
+            return CSV;
+        }
+        if (fileName.endsWith(".ndjson") || fileName.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new BusinessException("Unsupported import file " + path.getFileName() + ", use .csv, .ndjson or .jsonl");
+    }
+}
@@ -0,0 +1,28 @@
+package com.api.worldline.flights.importer;
+
+import com.api.worldline.flights.config.FlightImportProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Imports the file at {@code flights.import.path} once the application has started.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "flights.import", name = "path")
+public class FlightImportRunner implements ApplicationRunner {
+
+    private final FlightImportService flightImportService;
+    private final FlightImportProperties flightImportProperties;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path path = flightImportProperties.path();
+        flightImportService.importFile(path, FlightImportFormat.of(path));
+    }
+}
@@ -0,0 +1,152 @@
+package com.api.worldline.flights.importer;
+
+import com.api.worldline.flights.config.FlightBatchProperties;
+import com.api.worldline.flights.config.FlightImportProperties;
+import com.api.worldline.flights.controller.dto.FlightBatchItemResult;
+import com.api.worldline.flights.controller.dto.FlightImportReject;
+import com.api.worldline.flights.controller.dto.FlightImportReport;
+import com.api.worldline.flights.controller.dto.FlightRequest;
+import com.api.worldline.flights.service.FlightBatchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Imports flight schedules from CSV or NDJSON without holding the file in memory. Bytes are split
+ * into lines as they are read, each line is parsed on its own, and parsed flights are handed to
+ * {@link FlightBatchService} one chunk at a time. Validation and writes are therefore the same as
+ * for the batch endpoints. Memory is bounded by the read buffer, the maximum line length, one
+ * chunk of flights and the reported rejects, whatever the file size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlightImportService {
+
+    private final FlightBatchService flightBatchService;
+    private final ObjectMapper objectMapper;
+    private final FlightBatchProperties flightBatchProperties;
+    private final FlightImportProperties flightImportProperties;
+
+    public FlightImportReport importFlights(ReadableByteChannel channel, FlightImportFormat format) throws IOException {
+        ImportRun run = new ImportRun(parser(format));
+        new LineSplitter(readBufferSize(), maxLineLength(), run).readFrom(channel);
+        return run.finish();
+    }
+
+    /**
+     * Imports a local file, read straight into the line splitter's buffer like a request body.
+     */
+    public FlightImportReport importFile(Path path, FlightImportFormat format) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return importFlights(channel, format);
+        }
+    }
+
+    private FlightLineParser parser(FlightImportFormat format) {
+        return switch (format) {
+            case CSV -> new CsvFlightLineParser();
+            case NDJSON -> new NdjsonFlightLineParser(objectMapper);
+        };
+    }
+
+    private int maxLineLength() {
+        return (int) Math.min(flightImportProperties.maxLineLength().toBytes(), Integer.MAX_VALUE - 8);
+    }
+
+    private int readBufferSize() {
+        return (int) Math.min(flightImportProperties.readBufferSize().toBytes(), Integer.MAX_VALUE - 8);
+    }
+
+    private static boolean isBlank(byte[] bytes, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (bytes[i] != ' ' && bytes[i] != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final class ImportRun implements LineSplitter.LineConsumer {
+
+        private final FlightLineParser parser;
+        private final List<FlightRequest> pending;
+        private final long[] pendingLines;
+        private final List<FlightImportReject> rejects = new ArrayList<>();
+        private final long start = System.nanoTime();
+        private long imported;
+        private long rejected;
+
+        private ImportRun(FlightLineParser parser) {
+            this.parser = parser;
+            this.pending = new ArrayList<>(flightBatchProperties.chunkSize());
+            this.pendingLines = new long[flightBatchProperties.chunkSize()];
+        }
+
+        @Override
+        public void accept(byte[] bytes, int offset, int length, long lineNumber) {
+            if (isBlank(bytes, offset, length)) {
+                return;
+            }
+            FlightRequest flightRequest;
+            try {
+                flightRequest = parser.parse(bytes, offset, length);
+            } catch (IllegalArgumentException e) {
+                reject(lineNumber, List.of(e.getMessage()));
+                return;
+            }
+            if (flightRequest == null) {
+                return;
+            }
+            pendingLines[pending.size()] = lineNumber;
+            pending.add(flightRequest);
+            if (pending.size() == pendingLines.length) {
+                flush();
+            }
+        }
+
+        @Override
+        public void tooLong(long lineNumber) {
+            reject(lineNumber, List.of("Line longer than " + flightImportProperties.maxLineLength().toBytes() + " bytes"));
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            for (FlightBatchItemResult result : flightBatchService.saveFlightInfos(pending).results()) {
+                if (result.status().isSuccess()) {
+                    imported++;
+                } else {
+                    reject(pendingLines[result.index()], result.messages());
+                }
+            }
+            pending.clear();
+        }
+
+        private void reject(long lineNumber, List<String> messages) {
+            rejected++;
+            if (rejects.size() < flightImportProperties.maxReportedRejects()) {
+                rejects.add(new FlightImportReject(lineNumber, messages));
+            }
+        }
+
+        private FlightImportReport finish() {
+            flush();
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            double flightsPerSecond = duration.isZero() ? imported : imported * 1_000_000_000.0 / duration.toNanos();
+            log.info("Imported {} flights, rejected {}, in {} ms ({} flights/s)", imported, rejected, duration.toMillis(), Math.round(flightsPerSecond));
+            return new FlightImportReport(imported, rejected, duration.toMillis(), flightsPerSecond, List.copyOf(rejects));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.api.worldline.flights.importer;
+
+import com.api.worldline.flights.controller.dto.FlightRequest;
+
+/**
+ * Turns one line of an import file into a {@link FlightRequest}.
+ */
+interface FlightLineParser {
+
+    /**
+     * @return the flight, or null when the line holds no flight (such as a CSV header)
+     * @throws IllegalArgumentException when the line cannot be parsed; the message is reported
+     */
+    FlightRequest parse(byte[] bytes, int offset, int length);
+}
@@ -0,0 +1,119 @@
+package com.api.worldline.flights.importer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Splits the bytes of a channel into lines without decoding them. Lines fully contained in a
+ * read are handed out straight from the scratch array; only lines crossing a buffer boundary are
+ * copied. A trailing {@code \r} is dropped and blank lines are skipped, but still counted.
+ * <p>
+ * Lines longer than {@code maxLineLength} bytes are reported to {@link LineConsumer#tooLong} and
+ * skipped up to the next newline, so memory stays bounded by the scratch array and that length
+ * even for input without newlines.
+ */
+final class LineSplitter {
+
+    @FunctionalInterface
+    interface LineConsumer {
+
+        /**
+         * The bytes are only valid during the call.
+         */
+        void accept(byte[] bytes, int offset, int length, long lineNumber);
+
+        /**
+         * Called instead of {@link #accept} for a line longer than the maximum line length.
+         */
+        default void tooLong(long lineNumber) {
+        }
+    }
+
+    private final byte[] scratch;
+    private final int maxLineLength;
+    private final LineConsumer consumer;
+    private byte[] carry = new byte[256];
+    private int carryLength;
+    private boolean skipping;
+    private long lineNumber;
+
+    LineSplitter(int bufferSize, int maxLineLength, LineConsumer consumer) {
+        this.scratch = new byte[bufferSize];
+        this.maxLineLength = maxLineLength;
+        this.consumer = consumer;
+    }
+
+    /**
+     * Reads the channel to its end straight into the scratch array.
+     */
+    void readFrom(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(scratch);
+        while (channel.read(buffer) != -1) {
+            split(buffer.position());
+            buffer.clear();
+        }
+        finish();
+    }
+
+    private void finish() {
+        if (skipping) {
+            skipping = false;
+            consumer.tooLong(++lineNumber);
+        } else if (carryLength > 0) {
+            emit(carry, 0, carryLength);
+        }
+        carryLength = 0;
+    }
+
+    private void split(int length) {
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            if (scratch[i] != '\n') {
+                continue;
+            }
+            if (carryLength > 0 || skipping) {
+                append(start, i - start);
+                finish();
+            } else {
+                emit(scratch, start, i - start);
+            }
+            start = i + 1;
+        }
+        append(start, length - start);
+    }
+
+    /**
+     * Carries the start of a line over to the next read, or drops it once the line is too long.
+     * One byte more than the maximum is kept for a trailing {@code \r}.
+     */
+    private void append(int offset, int length) {
+        if (skipping) {
+            return;
+        }
+        int carried = carryLength + length;
+        if (carried > maxLineLength + 1) {
+            skipping = true;
+            carryLength = 0;
+            return;
+        }
+        if (carried > carry.length) {
+            carry = Arrays.copyOf(carry, Math.min(Math.max(carry.length * 2, carried), maxLineLength + 1));
+        }
+        System.arraycopy(scratch, offset, carry, carryLength, length);
+        carryLength = carried;
+    }
+
+    private void emit(byte[] bytes, int offset, int length) {
+        lineNumber++;
+        if (length > 0 && bytes[offset + length - 1] == '\r') {
+            length--;
+        }
+        if (length > maxLineLength) {
+            consumer.tooLong(lineNumber);
+        } else if (length > 0) {
+            consumer.accept(bytes, offset, length, lineNumber);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.api.worldline.flights.importer;
+
+import com.api.worldline.flights.controller.dto.FlightRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+
+/**
+ * One {@link FlightRequest} JSON object per line, read straight from the line bytes. Every
+ * non-blank line must hold a flight, so a {@code null} literal is rejected.
+ */
+final class NdjsonFlightLineParser implements FlightLineParser {
+
+    private final ObjectReader reader;
+
+    NdjsonFlightLineParser(ObjectMapper objectMapper) {
+        this.reader = objectMapper.readerFor(FlightRequest.class);
+    }
+
+    @Override
+    public FlightRequest parse(byte[] bytes, int offset, int length) {
+        FlightRequest flightRequest;
+        try {
+            flightRequest = reader.readValue(bytes, offset, length);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON: " + e.getMessage());
+        }
+        if (flightRequest == null) {
+            throw new IllegalArgumentException("Invalid JSON: expected a flight object");
+        }
+        return flightRequest;
+    }
+}
@@ -0,0 +1,147 @@
+package com.api.worldline.flights.index;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes flight fields into the primitives stored by {@link FlightColumns}.
+ * <ul>
+ *     <li>Airports: three ASCII characters packed into an int, other values interned to a negative id.</li>
+ *     <li>Routes: both airport codes packed into a long, used as the bucket key.</li>
+ *     <li>Airlines and suppliers: interned to small ids.</li>
+ *     <li>Times: epoch seconds (UTC) plus nanos.</li>
+ *     <li>Fares: fixed-point cents. Fares that do not round-trip through cents keep their exact value
+ *     in a side table keyed by flight id.</li>
+ * </ul>
+ */
+final class FlightCodec {
+
+    static final long NO_ROUTE = Long.MIN_VALUE;
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final long NO_FARE = Long.MIN_VALUE;
+    private static final long INEXACT_FARE = Long.MIN_VALUE + 1;
+
+    private final StringDictionary airports = new StringDictionary();
+    private final StringDictionary airlines = new StringDictionary();
+    private final StringDictionary suppliers = new StringDictionary();
+    private final Map<Long, Double> inexactFares = new ConcurrentHashMap<>();
+
+    long route(String departureAirport, String destinationAirport) {
+        return route(airport(departureAirport), airport(destinationAirport));
+    }
+
+    /**
+     * Route key for a search, or {@link #NO_ROUTE} when one of the airports was never indexed.
+     */
+    long findRoute(String departureAirport, String destinationAirport) {
+        int departure = findAirport(departureAirport);
+        int destination = findAirport(destinationAirport);
+        if (departure == Integer.MIN_VALUE || destination == Integer.MIN_VALUE) {
+            return NO_ROUTE;
+        }
+        return route(departure, destination);
+    }
+
+    int airline(String airline) {
+        return airlines.intern(airline);
+    }
+
+    int findAirline(String airline) {
+        return airlines.find(airline);
+    }
+
+    String airline(int id) {
+        return airlines.get(id);
+    }
+
+    int supplier(String supplier) {
+        return suppliers.intern(supplier);
+    }
+
+    String supplier(int id) {
+        return suppliers.get(id);
+    }
+
+    long fare(long id, Double fare) {
+        if (fare == null) {
+            inexactFares.remove(id);
+            return NO_FARE;
+        }
+        long cents = Math.round(fare * 100);
+        if (cents / 100.0 == fare && cents > INEXACT_FARE) {
+            inexactFares.remove(id);
+            return cents;
+        }
+        inexactFares.put(id, fare);
+        return INEXACT_FARE;
+    }
+
+    Double fare(long id, long cents) {
+        if (cents == NO_FARE) {
+            return null;
+        }
+        if (cents == INEXACT_FARE) {
+            return inexactFares.get(id);
+        }
+        return cents / 100.0;
+    }
+
+    void forget(long id) {
+        inexactFares.remove(id);
+    }
+
+    static long seconds(LocalDateTime time) {
+        return time == null ? NO_TIME : time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static int nanos(LocalDateTime time) {
+        return time == null ? 0 : time.getNano();
+    }
+
+    static LocalDateTime time(long seconds, int nanos) {
+        return seconds == NO_TIME ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    private static long route(int departure, int destination) {
+        return ((long) departure << 32) | (destination & 0xFFFFFFFFL);
+    }
+
+    private int airport(String code) {
+        int packed = pack(code);
+        return packed >= 0 ? packed : -airports.intern(code);
+    }
+
+    private int findAirport(String code) {
+        int packed = pack(code);
+        if (packed >= 0) {
+            return packed;
+        }
+        int id = airports.find(code);
+        return id < 0 ? Integer.MIN_VALUE : -id;
+    }
+
+    /**
+     * Packs a three-character ASCII code into the low 21 bits, {@code 0} for null and {@code -1}
+     * when the code does not fit.
+     */
+    private static int pack(String code) {
+        if (code == null) {
+            return 0;
+        }
+        if (code.length() != 3) {
+            return -1;
+        }
+        int packed = 0;
+        for (int i = 0; i < 3; i++) {
+            char c = code.charAt(i);
+            if (c == 0 || c > 0x7F) {
+                return -1;
+            }
+            packed = (packed << 7) | c;
+        }
+        return packed;
+    }
+}
@@ -0,0 +1,230 @@
+package com.api.worldline.flights.index;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable, column-oriented bucket of flights sharing one route, sorted by departure time (nulls
+ * first) then id. A row costs 48 bytes spread over primitive arrays, and the airports are stored
+ * once per bucket. Rows are only materialized as {@link FlightResponse} when they are returned.
+ */
+final class FlightColumns {
+
+    private final String departureAirport;
+    private final String destinationAirport;
+    private final long[] ids;
+    private final int[] airlines;
+    private final int[] suppliers;
+    private final long[] fares;
+    private final long[] departureSeconds;
+    private final int[] departureNanos;
+    private final long[] arrivalSeconds;
+    private final int[] arrivalNanos;
+
+    private FlightColumns(String departureAirport, String destinationAirport, int size) {
+        this(departureAirport, destinationAirport, new long[size], new int[size], new int[size], new long[size],
+                new long[size], new int[size], new long[size], new int[size]);
+    }
+
+    private FlightColumns(String departureAirport,
+                          String destinationAirport,
+                          long[] ids,
+                          int[] airlines,
+                          int[] suppliers,
+                          long[] fares,
+                          long[] departureSeconds,
+                          int[] departureNanos,
+                          long[] arrivalSeconds,
+                          int[] arrivalNanos) {
+        this.departureAirport = departureAirport;
+        this.destinationAirport = destinationAirport;
+        this.ids = ids;
+        this.airlines = airlines;
+        this.suppliers = suppliers;
+        this.fares = fares;
+        this.departureSeconds = departureSeconds;
+        this.departureNanos = departureNanos;
+        this.arrivalSeconds = arrivalSeconds;
+        this.arrivalNanos = arrivalNanos;
+    }
+
+    String departureAirport() {
+        return departureAirport;
+    }
+
+    String destinationAirport() {
+        return destinationAirport;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    long id(int row) {
+        return ids[row];
+    }
+
+    int airline(int row) {
+        return airlines[row];
+    }
+
+    long departureSeconds(int row) {
+        return departureSeconds[row];
+    }
+
+    int departureNanos(int row) {
+        return departureNanos[row];
+    }
+
+    /**
+     * Whether the flight arrives at or before the given time. Flights without an arrival time never do.
+     */
+    boolean arrivesBy(int row, long seconds, int nanos) {
+        if (arrivalSeconds[row] == FlightCodec.NO_TIME) {
+            return false;
+        }
+        return arrivalSeconds[row] < seconds || (arrivalSeconds[row] == seconds && arrivalNanos[row] <= nanos);
+    }
+
+    FlightResponse get(int row, FlightCodec codec) {
+        return new FlightResponse(
+                ids[row],
+                codec.airline(airlines[row]),
+                codec.supplier(suppliers[row]),
+                codec.fare(ids[row], fares[row]),
+                departureAirport,
+                destinationAirport,
+                FlightCodec.time(departureSeconds[row], departureNanos[row]),
+                FlightCodec.time(arrivalSeconds[row], arrivalNanos[row])
+        );
+    }
+
+    /**
+     * Index of the first row positioned strictly after ({@code seconds}, {@code nanos}, {@code id}).
+     */
+    int firstAfter(long seconds, int nanos, long id) {
+        int low = 0;
+        int high = ids.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(mid, seconds, nanos, id) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * This bucket without the rows whose id is in {@code removedIds} and with the {@code added}
+     * flights, built in a single merge pass, or null when no row is left. {@code added} must be
+     * sorted in bucket order and must not contain ids of rows that are kept.
+     */
+    FlightColumns withChanges(Set<Long> removedIds, List<FlightResponse> added, FlightCodec codec) {
+        int kept = ids.length;
+        if (!removedIds.isEmpty()) {
+            for (long id : ids) {
+                if (removedIds.contains(id)) {
+                    kept--;
+                }
+            }
+        }
+        int size = kept + added.size();
+        if (size == 0) {
+            return null;
+        }
+        FlightColumns merged = new FlightColumns(departureAirport, destinationAirport, size);
+        int row = 0;
+        int next = 0;
+        for (int position = 0; position < size; position++) {
+            while (row < ids.length && removedIds.contains(ids[row])) {
+                row++;
+            }
+            FlightResponse flight = next < added.size() ? added.get(next) : null;
+            if (flight != null && (row == ids.length
+                    || compare(row, FlightCodec.seconds(flight.departureTime()), FlightCodec.nanos(flight.departureTime()), flight.id()) > 0)) {
+                merged.set(position, flight, codec);
+                next++;
+            } else {
+                merged.copyRows(this, row++, position, 1);
+            }
+        }
+        return merged;
+    }
+
+    private int compare(int row, long seconds, int nanos, long id) {
+        int bySeconds = Long.compare(departureSeconds[row], seconds);
+        if (bySeconds != 0) {
+            return bySeconds;
+        }
+        int byNanos = Integer.compare(departureNanos[row], nanos);
+        return byNanos != 0 ? byNanos : Long.compare(ids[row], id);
+    }
+
+    private void set(int row, FlightResponse flight, FlightCodec codec) {
+        ids[row] = flight.id();
+        airlines[row] = codec.airline(flight.airline());
+        suppliers[row] = codec.supplier(flight.supplier());
+        fares[row] = codec.fare(flight.id(), flight.fare());
+        departureSeconds[row] = FlightCodec.seconds(flight.departureTime());
+        departureNanos[row] = FlightCodec.nanos(flight.departureTime());
+        arrivalSeconds[row] = FlightCodec.seconds(flight.arrivalTime());
+        arrivalNanos[row] = FlightCodec.nanos(flight.arrivalTime());
+    }
+
+    private void copyRows(FlightColumns source, int from, int to, int length) {
+        System.arraycopy(source.ids, from, ids, to, length);
+        System.arraycopy(source.airlines, from, airlines, to, length);
+        System.arraycopy(source.suppliers, from, suppliers, to, length);
+        System.arraycopy(source.fares, from, fares, to, length);
+        System.arraycopy(source.departureSeconds, from, departureSeconds, to, length);
+        System.arraycopy(source.departureNanos, from, departureNanos, to, length);
+        System.arraycopy(source.arrivalSeconds, from, arrivalSeconds, to, length);
+        System.arraycopy(source.arrivalNanos, from, arrivalNanos, to, length);
+    }
+
+    /**
+     * Accumulates the rows of one route during a bulk load, in any order.
+     */
+    static final class Builder {
+
+        private FlightColumns rows;
+        private int size;
+
+        Builder(String departureAirport, String destinationAirport) {
+            rows = new FlightColumns(departureAirport, destinationAirport, 16);
+        }
+
+        void add(FlightResponse flight, FlightCodec codec) {
+            if (size == rows.ids.length) {
+                FlightColumns grown = new FlightColumns(rows.departureAirport, rows.destinationAirport, size * 2);
+                grown.copyRows(rows, 0, 0, size);
+                rows = grown;
+            }
+            rows.set(size++, flight, codec);
+        }
+
+        FlightColumns build() {
+            Integer[] order = new Integer[size];
+            for (int row = 0; row < size; row++) {
+                order[row] = row;
+            }
+            Arrays.sort(order, Comparator
+                    .comparingLong((Integer row) -> rows.departureSeconds[row])
+                    .thenComparingInt(row -> rows.departureNanos[row])
+                    .thenComparingLong(row -> rows.ids[row]));
+
+            FlightColumns sorted = new FlightColumns(rows.departureAirport, rows.destinationAirport, size);
+            for (int row = 0; row < size; row++) {
+                sorted.copyRows(rows, order[row], row, 1);
+            }
+            return sorted;
+        }
+    }
+}
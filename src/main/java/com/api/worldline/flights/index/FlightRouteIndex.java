@@ -0,0 +1,296 @@
+package com.api.worldline.flights.index;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.service.dto.FlightCursor;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import com.api.worldline.flights.service.dto.VersionedFlight;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-heap read model of the flights table, bucketed by route. Each bucket is an immutable
+ * {@link FlightColumns} sorted like {@link FlightCursor} orders database flights (departure time
+ * nulls first, then id), so departure lower bounds and page cursors are resolved with a binary
+ * search. Writers replace whole buckets under a lock; readers never block. The lock is a
+ * {@link ReentrantLock} rather than a monitor so that a virtual thread loading from the database
+ * does not pin its carrier thread.
+ * <p>
+ * Writes are applied after their transaction commits, so two writes to the same flight can reach
+ * the index in the opposite order to their commits. Each flight therefore keeps the {@code @Version}
+ * it was indexed with and older writes are dropped; a deleted flight keeps a tombstone so that a
+ * late write cannot bring it back. Flight ids are never reused, so tombstones live as long as the
+ * index.
+ * <p>
+ * The index is empty and ignored until {@link #load} has run, see {@link FlightRouteIndexLoader}.
+ */
+@Component
+public class FlightRouteIndex {
+
+    private static final Comparator<FlightResponse> BUCKET_ORDER = Comparator
+            .comparing(FlightResponse::departureTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(FlightResponse::id);
+    private static final long NO_VERSION = -1L;
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final FlightCodec codec = new FlightCodec();
+
+    private volatile Map<Long, FlightColumns> buckets = new ConcurrentHashMap<>();
+    private LongLongHashMap routesById = new LongLongHashMap(0);
+    private LongLongHashMap versionsById = new LongLongHashMap(0);
+    private volatile int size;
+    private volatile boolean loaded;
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Replaces the index content with the given flights. Writes issued while loading wait for the
+     * load to finish and are applied on top of it, so the source must be read inside this call.
+     */
+    public int load(Stream<VersionedFlight> flights) {
+        writeLock.lock();
+        try {
+            Map<Long, FlightColumns.Builder> routes = new HashMap<>();
+            LongLongHashMap byId = new LongLongHashMap(1024);
+            LongLongHashMap versions = new LongLongHashMap(1024);
+            flights.forEach(versionedFlight -> {
+                FlightResponse flight = versionedFlight.flight();
+                long route = codec.route(flight.departureAirport(), flight.destinationAirport());
+                routes.computeIfAbsent(route, key -> new FlightColumns.Builder(flight.departureAirport(), flight.destinationAirport()))
+                        .add(flight, codec);
+                byId.put(flight.id(), route, FlightCodec.NO_ROUTE);
+                versions.put(flight.id(), version(versionedFlight), NO_VERSION);
+            });
+
+            Map<Long, FlightColumns> sortedRoutes = new ConcurrentHashMap<>(routes.size());
+            routes.forEach((route, builder) -> sortedRoutes.put(route, builder.build()));
+
+            buckets = sortedRoutes;
+            routesById = byId;
+            versionsById = versions;
+            size = byId.size();
+            loaded = true;
+            return size;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void put(VersionedFlight flight) {
+        if (loaded) {
+            putAll(List.of(flight));
+        }
+    }
+
+    public void remove(Long id) {
+        if (loaded) {
+            removeAll(List.of(id));
+        }
+    }
+
+    /**
+     * Adds or replaces the given flights. Each bucket touched is rebuilt once, however many of
+     * the flights it gains or loses, so writing a chunk into one route costs a single copy of it.
+     * Flights whose version is not newer than the indexed one, or that were deleted, are skipped.
+     */
+    public void putAll(Collection<VersionedFlight> flights) {
+        writeLock.lock();
+        try {
+            if (!loaded || flights.isEmpty()) {
+                return;
+            }
+            Map<Long, FlightResponse> byId = new LinkedHashMap<>();
+            for (VersionedFlight versionedFlight : flights) {
+                Long id = versionedFlight.flight().id();
+                long version = version(versionedFlight);
+                if (version > versionsById.get(id, NO_VERSION)) {
+                    versionsById.put(id, version, NO_VERSION);
+                    byId.put(id, versionedFlight.flight());
+                }
+            }
+
+            Map<Long, Set<Long>> removed = new HashMap<>();
+            Map<Long, List<FlightResponse>> added = new HashMap<>();
+            byId.forEach((id, flight) -> {
+                long previousRoute = routesById.remove(id, FlightCodec.NO_ROUTE);
+                if (previousRoute != FlightCodec.NO_ROUTE) {
+                    removed.computeIfAbsent(previousRoute, key -> new HashSet<>()).add(id);
+                }
+                long route = codec.route(flight.departureAirport(), flight.destinationAirport());
+                added.computeIfAbsent(route, key -> new ArrayList<>()).add(flight);
+                routesById.put(id, route, FlightCodec.NO_ROUTE);
+            });
+            rebuild(removed, added);
+            size = routesById.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void removeAll(Collection<Long> ids) {
+        writeLock.lock();
+        try {
+            if (!loaded || ids.isEmpty()) {
+                return;
+            }
+            Map<Long, Set<Long>> removed = new HashMap<>();
+            for (Long id : ids) {
+                long route = routesById.remove(id, FlightCodec.NO_ROUTE);
+                if (route != FlightCodec.NO_ROUTE) {
+                    removed.computeIfAbsent(route, key -> new HashSet<>()).add(id);
+                }
+                versionsById.put(id, DELETED, NO_VERSION);
+                codec.forget(id);
+            }
+            rebuild(removed, Map.of());
+            size = routesById.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * All flights matching the criteria, in bucket order.
+     */
+    public List<FlightResponse> search(FlightSearchCriteria criteria) {
+        return searchPage(criteria, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Equivalent of {@code FlightRepository#searchFlightsPage}: up to {@code limit} flights matching
+     * the criteria and positioned after the cursor.
+     */
+    public List<FlightResponse> searchPage(FlightSearchCriteria criteria, FlightCursor after, int limit) {
+        int airline = codec.findAirline(criteria.airline());
+        if (airline < 0) {
+            return List.of();
+        }
+        Map<Long, FlightColumns> buckets = this.buckets;
+        if (criteria.departureAirport() != null && criteria.destinationAirport() != null) {
+            long route = codec.findRoute(criteria.departureAirport(), criteria.destinationAirport());
+            FlightColumns bucket = route == FlightCodec.NO_ROUTE ? null : buckets.get(route);
+            if (bucket == null) {
+                return List.of();
+            }
+            List<FlightResponse> flights = new ArrayList<>();
+            scan(bucket, criteria, airline, after, limit, flights::add);
+            return flights;
+        }
+
+        List<FlightResponse> flights = new ArrayList<>();
+        buckets.values().forEach(bucket -> {
+            if (matchesRoute(bucket, criteria)) {
+                scan(bucket, criteria, airline, after, limit, flights::add);
+            }
+        });
+        flights.sort(BUCKET_ORDER);
+        return flights.size() > limit ? flights.subList(0, limit) : flights;
+    }
+
+    /**
+     * Hands every flight matching the criteria to {@code action} as the buckets are scanned, in no
+     * particular order and without collecting them, for callers that only keep a few of them.
+     */
+    public void forEachMatch(FlightSearchCriteria criteria, Consumer<? super FlightResponse> action) {
+        int airline = codec.findAirline(criteria.airline());
+        if (airline < 0) {
+            return;
+        }
+        Map<Long, FlightColumns> buckets = this.buckets;
+        if (criteria.departureAirport() != null && criteria.destinationAirport() != null) {
+            long route = codec.findRoute(criteria.departureAirport(), criteria.destinationAirport());
+            FlightColumns bucket = route == FlightCodec.NO_ROUTE ? null : buckets.get(route);
+            if (bucket != null) {
+                scan(bucket, criteria, airline, null, Integer.MAX_VALUE, action);
+            }
+            return;
+        }
+        buckets.values().forEach(bucket -> {
+            if (matchesRoute(bucket, criteria)) {
+                scan(bucket, criteria, airline, null, Integer.MAX_VALUE, action);
+            }
+        });
+    }
+
+    private void scan(FlightColumns bucket,
+                      FlightSearchCriteria criteria,
+                      int airline,
+                      FlightCursor after,
+                      int limit,
+                      Consumer<? super FlightResponse> action) {
+        int start = 0;
+        if (criteria.departureTime() != null) {
+            start = bucket.firstAfter(FlightCodec.seconds(criteria.departureTime()), FlightCodec.nanos(criteria.departureTime()), Long.MIN_VALUE);
+        }
+        if (after != null) {
+            start = Math.max(start, bucket.firstAfter(FlightCodec.seconds(after.departureTime()), FlightCodec.nanos(after.departureTime()), after.databaseAfterId()));
+        }
+        boolean filterAirline = criteria.airline() != null;
+        boolean filterArrival = criteria.arrivalTime() != null;
+        long arrivalSeconds = FlightCodec.seconds(criteria.arrivalTime());
+        int arrivalNanos = FlightCodec.nanos(criteria.arrivalTime());
+
+        int matched = 0;
+        for (int row = start; row < bucket.size() && matched < limit; row++) {
+            if ((!filterAirline || bucket.airline(row) == airline)
+                    && (!filterArrival || bucket.arrivesBy(row, arrivalSeconds, arrivalNanos))) {
+                action.accept(bucket.get(row, codec));
+                matched++;
+            }
+        }
+    }
+
+    private static boolean matchesRoute(FlightColumns bucket, FlightSearchCriteria criteria) {
+        return (criteria.departureAirport() == null || Objects.equals(criteria.departureAirport(), bucket.departureAirport()))
+                && (criteria.destinationAirport() == null || Objects.equals(criteria.destinationAirport(), bucket.destinationAirport()));
+    }
+
+    private static long version(VersionedFlight flight) {
+        return flight.version() == null ? 0L : flight.version();
+    }
+
+    private void rebuild(Map<Long, Set<Long>> removed, Map<Long, List<FlightResponse>> added) {
+        Set<Long> routes = new HashSet<>(removed.keySet());
+        routes.addAll(added.keySet());
+        for (Long route : routes) {
+            Set<Long> removedIds = removed.getOrDefault(route, Set.of());
+            List<FlightResponse> addedFlights = added.getOrDefault(route, List.of());
+            if (addedFlights.size() > 1) {
+                addedFlights.sort(BUCKET_ORDER);
+            }
+            buckets.compute(route, (key, bucket) -> bucket == null
+                    ? bucketOf(addedFlights)
+                    : bucket.withChanges(removedIds, addedFlights, codec));
+        }
+    }
+
+    private FlightColumns bucketOf(List<FlightResponse> flights) {
+        if (flights.isEmpty()) {
+            return null;
+        }
+        FlightResponse first = flights.getFirst();
+        FlightColumns.Builder builder = new FlightColumns.Builder(first.departureAirport(), first.destinationAirport());
+        flights.forEach(flight -> builder.add(flight, codec));
+        return builder.build();
+    }
+}
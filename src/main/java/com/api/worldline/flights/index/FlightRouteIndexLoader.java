@@ -0,0 +1,51 @@
+package com.api.worldline.flights.index;
+
+import com.api.worldline.flights.config.FlightMapper;
+import com.api.worldline.flights.model.Flight;
+import com.api.worldline.flights.repository.FlightRepository;
+import com.api.worldline.flights.service.dto.VersionedFlight;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+/**
+ * Bulk-loads {@link FlightRouteIndex} from the database once the application is up, when
+ * {@code flights.route-index.enabled} is set. Until then searches keep going to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "flights.route-index", name = "enabled", havingValue = "true")
+public class FlightRouteIndexLoader {
+
+    private final FlightRouteIndex flightRouteIndex;
+    private final FlightRepository flightRepository;
+    private final FlightMapper flightMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.nanoTime();
+        Integer size = transactionTemplate.execute(status -> {
+            try (Stream<Flight> flights = flightRepository.streamFlights(null, null, null, null, null)) {
+                return flightRouteIndex.load(flights.map(this::toVersionedFlight));
+            }
+        });
+        log.info("Loaded {} flights into the route index in {} ms", size, Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private VersionedFlight toVersionedFlight(Flight flight) {
+        VersionedFlight versionedFlight = new VersionedFlight(flightMapper.toResponse(flight), flight.getVersion());
+        entityManager.detach(flight);
+        return versionedFlight;
+    }
+}
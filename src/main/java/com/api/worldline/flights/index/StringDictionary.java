@@ -0,0 +1,51 @@
+package com.api.worldline.flights.index;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only mapping between strings and small positive ids, {@code 0} standing for null.
+ * Interning is single-writer (callers hold the index write lock); lookups are safe from any thread
+ * for ids that were published through an index bucket.
+ */
+final class StringDictionary {
+
+    static final int NULL_ID = 0;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private int nextId = 1;
+
+    int intern(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        String[] current = values;
+        if (nextId == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+        }
+        current[nextId] = value;
+        values = current;
+        ids.put(value, nextId);
+        return nextId++;
+    }
+
+    /**
+     * Id of an already interned value, or {@code -1} when the value was never seen.
+     */
+    int find(String value) {
+        if (value == null) {
+            return NULL_ID;
+        }
+        return ids.getOrDefault(value, -1);
+    }
+
+    String get(int id) {
+        return id == NULL_ID ? null : values[id];
+    }
+}
@@ -0,0 +1,49 @@
+package com.api.worldline.flights.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Fares of one route and departure day, as seen by one source: the database or a supplier. Indexed
+ * by route then day, so a month of a route is a single range scan. Supplier entries carry the time
+ * they were fetched, so that days the supplier stops returning expire.
+ */
+@Entity
+@Table(name = "fare_calendar", indexes = {
+        @Index(name = "idx_fare_calendar_route_date", columnList = "departure_airport, destination_airport, departure_date"),
+        @Index(name = "idx_fare_calendar_fetched_at", columnList = "fetched_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FareCalendarEntry {
+
+    public static final String DATABASE_SOURCE = "database";
+
+    @EmbeddedId
+    private Key id;
+    private double minFare;
+    private double fareSum;
+    private long flightCount;
+    private LocalDateTime fetchedAt;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private String departureAirport;
+        private String destinationAirport;
+        private LocalDate departureDate;
+        private String source;
+
+    }
+
+}
@@ -7,13 +7,18 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "flights")
+@Table(name = "flights", indexes = {
+        @Index(name = "idx_flights_route_departure", columnList = "departure_airport, destination_airport, departure_time"),
+        @Index(name = "idx_flights_departure_id", columnList = "departure_time, id"),
+        @Index(name = "idx_flights_airline_departure", columnList = "airline, departure_time")
+})
 @Data
 @NoArgsConstructor
 public class Flight {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "flights_seq")
+    @SequenceGenerator(name = "flights_seq", sequenceName = "flights_seq", allocationSize = 50)
     private Long id;
     private String airline;
     private String supplier;
@@ -23,4 +28,8 @@ public class Flight {
     private LocalDateTime departureTime;
     private LocalDateTime arrivalTime;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
 }
@@ -0,0 +1,47 @@
+package com.api.worldline.flights.repository;
+
+import com.api.worldline.flights.controller.dto.FareCalendarDay;
+import com.api.worldline.flights.model.FareCalendarEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+public interface FareCalendarRepository extends JpaRepository<FareCalendarEntry, FareCalendarEntry.Key> {
+
+    /**
+     * One entry per departure day of the route between {@code from} and {@code to}, inclusive,
+     * combining all sources.
+     */
+    @Query("""
+            select new com.api.worldline.flights.controller.dto.FareCalendarDay(
+                e.id.departureDate, min(e.minFare), sum(e.fareSum) / sum(e.flightCount), sum(e.flightCount))
+            from FareCalendarEntry e
+            where e.id.departureAirport = :departureAirport
+              and e.id.destinationAirport = :destinationAirport
+              and e.id.departureDate between :from and :to
+            group by e.id.departureDate
+            order by e.id.departureDate
+            """)
+    List<FareCalendarDay> findDays(@Param("departureAirport") String departureAirport,
+                                   @Param("destinationAirport") String destinationAirport,
+                                   @Param("from") LocalDate from,
+                                   @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from FareCalendarEntry e where e.id.source = :source")
+    int deleteBySource(@Param("source") String source);
+
+    /**
+     * Removes supplier entries fetched before {@code before}; database entries have no fetch time.
+     */
+    @Modifying
+    @Query("delete from FareCalendarEntry e where e.fetchedAt < :before")
+    int deleteFetchedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,25 +1,103 @@
 package com.api.worldline.flights.repository;
 
 import com.api.worldline.flights.model.Flight;
+import com.api.worldline.flights.service.dto.FareAggregate;
+import com.api.worldline.flights.service.dto.RouteDayFare;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Component
-public interface FlightRepository extends JpaRepository<Flight, Long> {
-
-    @Query("SELECT f FROM Flight f WHERE (:airline IS NULL OR f.airline = :airline) " +
-            "AND (:departureAirport IS NULL OR f.departureAirport = :departureAirport) " +
-            "AND (:destinationAirport IS NULL OR f.destinationAirport = :destinationAirport) " +
-            "AND (:departureTime IS NULL OR f.departureTime >= :departureTime) " +
-            "AND (:arrivalTime IS NULL OR f.arrivalTime <= :arrivalTime)")
-    List<Flight> searchFlights(@Param("airline") String airline,
-                               @Param("departureAirport") String departureAirport,
-                               @Param("destinationAirport") String destinationAirport,
-                               @Param("departureTime") LocalDateTime departureTime,
-                               @Param("arrivalTime") LocalDateTime arrivalTime);
+public interface FlightRepository extends JpaRepository<Flight, Long>, FlightSearchRepository {
+
+    @Query("select f.id from Flight f where f.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Flights with the given ids, locked until the end of the transaction so that they cannot be
+     * changed between this read and the write that follows it.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select f from Flight f where f.id in :ids")
+    List<Flight> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            select new com.api.worldline.flights.service.dto.FareAggregate(min(f.fare), sum(f.fare), count(f))
+            from Flight f
+            where f.departureAirport = :departureAirport
+              and f.destinationAirport = :destinationAirport
+              and f.departureTime >= :from and f.departureTime < :to
+            """)
+    FareAggregate aggregateFares(@Param("departureAirport") String departureAirport,
+                                 @Param("destinationAirport") String destinationAirport,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+
+    /**
+     * {@link FareAggregate} of every route and departure day, skipping flights without route or
+     * departure time.
+     */
+    @Query("""
+            select new com.api.worldline.flights.service.dto.RouteDayFare(
+                f.departureAirport, f.destinationAirport, cast(f.departureTime as LocalDate),
+                min(f.fare), sum(f.fare), count(f))
+            from Flight f
+            where f.departureAirport is not null and f.destinationAirport is not null and f.departureTime is not null
+            group by f.departureAirport, f.destinationAirport, cast(f.departureTime as LocalDate)
+            """)
+    List<RouteDayFare> aggregateFaresByRouteDay();
+
+    /**
+     * Overwrites a flight in a single statement and bumps its version.
+     *
+     * @return the number of rows updated, 0 when the flight does not exist
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Flight f
+            set f.airline = :#{#flight.airline},
+                f.supplier = :#{#flight.supplier},
+                f.fare = :#{#flight.fare},
+                f.departureAirport = :#{#flight.departureAirport},
+                f.destinationAirport = :#{#flight.destinationAirport},
+                f.departureTime = :#{#flight.departureTime},
+                f.arrivalTime = :#{#flight.arrivalTime},
+                f.version = f.version + 1
+            where f.id = :id
+            """)
+    int updateFlight(@Param("id") Long id, @Param("flight") Flight flight);
+
+    /**
+     * Same as {@link #updateFlight} but only updates the row if it still has {@code expectedVersion}.
+     *
+     * @return the number of rows updated, 0 when the flight does not exist or its version differs
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Flight f
+            set f.airline = :#{#flight.airline},
+                f.supplier = :#{#flight.supplier},
+                f.fare = :#{#flight.fare},
+                f.departureAirport = :#{#flight.departureAirport},
+                f.destinationAirport = :#{#flight.destinationAirport},
+                f.departureTime = :#{#flight.departureTime},
+                f.arrivalTime = :#{#flight.arrivalTime},
+                f.version = f.version + 1
+            where f.id = :id and f.version = :expectedVersion
+            """)
+    int updateFlightIfVersion(@Param("id") Long id, @Param("expectedVersion") long expectedVersion, @Param("flight") Flight flight);
+
+    @Query("select f.version from Flight f where f.id = :id")
+    Long findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,56 @@
+package com.api.worldline.flights.repository;
+
+import com.api.worldline.flights.model.Flight;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Flight search queries built at runtime, so that only the filters actually supplied end up in the
+ * SQL. Every filter is optional; {@code departureTime} is a lower bound and {@code arrivalTime} an
+ * upper bound.
+ */
+public interface FlightSearchRepository {
+
+    List<Flight> searchFlights(String airline,
+                               String departureAirport,
+                               String destinationAirport,
+                               LocalDateTime departureTime,
+                               LocalDateTime arrivalTime);
+
+    /**
+     * One page of {@link #searchFlights} in (departureTime nulls first, id) order, starting after
+     * the given keyset position. Passing a null {@code afterId} returns the first page.
+     */
+    List<Flight> searchFlightsPage(String airline,
+                                   String departureAirport,
+                                   String destinationAirport,
+                                   LocalDateTime departureTime,
+                                   LocalDateTime arrivalTime,
+                                   LocalDateTime afterTime,
+                                   Long afterId,
+                                   Pageable pageable);
+
+    /**
+     * The first flights of {@link #searchFlights} in (fare, id) order, so that the database only
+     * keeps the cheapest {@code pageable.getPageSize()} rows while sorting.
+     */
+    List<Flight> searchCheapestFlights(String airline,
+                                       String departureAirport,
+                                       String destinationAirport,
+                                       LocalDateTime departureTime,
+                                       LocalDateTime arrivalTime,
+                                       Pageable pageable);
+
+    /**
+     * Same search as {@link #searchFlights}, fetched lazily through a JDBC cursor.
+     * Must be consumed and closed inside a transaction.
+     */
+    Stream<Flight> streamFlights(String airline,
+                                 String departureAirport,
+                                 String destinationAirport,
+                                 LocalDateTime departureTime,
+                                 LocalDateTime arrivalTime);
+}
@@ -0,0 +1,149 @@
+package com.api.worldline.flights.repository;
+
+import com.api.worldline.flights.model.Flight;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@RequiredArgsConstructor
+class FlightSearchRepositoryImpl implements FlightSearchRepository {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Flight> searchFlights(String airline,
+                                      String departureAirport,
+                                      String destinationAirport,
+                                      LocalDateTime departureTime,
+                                      LocalDateTime arrivalTime) {
+        HibernateCriteriaBuilder cb = criteriaBuilder();
+        CriteriaQuery<Flight> query = cb.createQuery(Flight.class);
+        Root<Flight> flight = query.from(Flight.class);
+        List<Predicate> predicates = filters(cb, flight, airline, departureAirport, destinationAirport, departureTime, arrivalTime);
+        query.select(flight).where(predicates.toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<Flight> searchFlightsPage(String airline,
+                                          String departureAirport,
+                                          String destinationAirport,
+                                          LocalDateTime departureTime,
+                                          LocalDateTime arrivalTime,
+                                          LocalDateTime afterTime,
+                                          Long afterId,
+                                          Pageable pageable) {
+        HibernateCriteriaBuilder cb = criteriaBuilder();
+        CriteriaQuery<Flight> query = cb.createQuery(Flight.class);
+        Root<Flight> flight = query.from(Flight.class);
+        List<Predicate> predicates = filters(cb, flight, airline, departureAirport, destinationAirport, departureTime, arrivalTime);
+
+        Path<LocalDateTime> flightDepartureTime = flight.get("departureTime");
+        Path<Long> flightId = flight.get("id");
+        if (afterId != null) {
+            if (afterTime == null) {
+                predicates.add(cb.or(
+                        cb.and(cb.isNull(flightDepartureTime), cb.greaterThan(flightId, afterId)),
+                        cb.isNotNull(flightDepartureTime)));
+            } else {
+                predicates.add(cb.or(
+                        cb.greaterThan(flightDepartureTime, afterTime),
+                        cb.and(cb.equal(flightDepartureTime, afterTime), cb.greaterThan(flightId, afterId))));
+            }
+        }
+
+        query.select(flight)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(flightDepartureTime, true), cb.asc(flightId));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public List<Flight> searchCheapestFlights(String airline,
+                                              String departureAirport,
+                                              String destinationAirport,
+                                              LocalDateTime departureTime,
+                                              LocalDateTime arrivalTime,
+                                              Pageable pageable) {
+        HibernateCriteriaBuilder cb = criteriaBuilder();
+        CriteriaQuery<Flight> query = cb.createQuery(Flight.class);
+        Root<Flight> flight = query.from(Flight.class);
+        List<Predicate> predicates = filters(cb, flight, airline, departureAirport, destinationAirport, departureTime, arrivalTime);
+        query.select(flight)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(flight.get("fare")), cb.asc(flight.get("id")));
+        return entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Flight> streamFlights(String airline,
+                                        String departureAirport,
+                                        String destinationAirport,
+                                        LocalDateTime departureTime,
+                                        LocalDateTime arrivalTime) {
+        HibernateCriteriaBuilder cb = criteriaBuilder();
+        CriteriaQuery<Flight> query = cb.createQuery(Flight.class);
+        Root<Flight> flight = query.from(Flight.class);
+        List<Predicate> predicates = filters(cb, flight, airline, departureAirport, destinationAirport, departureTime, arrivalTime);
+        query.select(flight).where(predicates.toArray(Predicate[]::new));
+        return entityManager.createQuery(query)
+                .setHint(HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private HibernateCriteriaBuilder criteriaBuilder() {
+        return (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+    }
+
+    /**
+     * Emits a predicate per supplied filter, in index column order, so that each combination of
+     * filters maps to one stable SQL statement the database can plan against the flights indexes.
+     */
+    private static List<Predicate> filters(HibernateCriteriaBuilder cb,
+                                           Root<Flight> flight,
+                                           String airline,
+                                           String departureAirport,
+                                           String destinationAirport,
+                                           LocalDateTime departureTime,
+                                           LocalDateTime arrivalTime) {
+        List<Predicate> predicates = new ArrayList<>(6);
+        if (airline != null) {
+            predicates.add(cb.equal(flight.get("airline"), airline));
+        }
+        if (departureAirport != null) {
+            predicates.add(cb.equal(flight.get("departureAirport"), departureAirport));
+        }
+        if (destinationAirport != null) {
+            predicates.add(cb.equal(flight.get("destinationAirport"), destinationAirport));
+        }
+        if (departureTime != null) {
+            predicates.add(cb.greaterThanOrEqualTo(flight.get("departureTime"), departureTime));
+        }
+        if (arrivalTime != null) {
+            predicates.add(cb.lessThanOrEqualTo(flight.get("arrivalTime"), arrivalTime));
+        }
+        return predicates;
+    }
+}
@@ -0,0 +1,59 @@
+package com.api.worldline.flights.service;
+
+import com.api.worldline.flights.config.FareCalendarProperties;
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.service.dto.RouteDay;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Route days whose flights changed since the fare calendar last recomputed them. Write paths mark
+ * them once committed, {@link FareCalendarService} drains them; a route day marked while it is
+ * being recomputed stays marked for the next run.
+ */
+@Component
+public class FareCalendarChanges {
+
+    private final boolean enabled;
+    private final Set<RouteDay> changed = ConcurrentHashMap.newKeySet();
+
+    public FareCalendarChanges(FareCalendarProperties properties) {
+        this.enabled = properties.enabled();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void mark(FlightResponse flight) {
+        if (enabled && flight != null) {
+            mark(RouteDay.of(flight));
+        }
+    }
+
+    public void mark(RouteDay routeDay) {
+        if (enabled && routeDay != null && routeDay.isComplete()) {
+            changed.add(routeDay);
+        }
+    }
+
+    public void markAll(Collection<RouteDay> routeDays) {
+        routeDays.forEach(this::mark);
+    }
+
+    public Set<RouteDay> drain() {
+        Set<RouteDay> drained = new HashSet<>();
+        Iterator<RouteDay> iterator = changed.iterator();
+        while (iterator.hasNext()) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+
+}
@@ -0,0 +1,180 @@
+package com.api.worldline.flights.service;
+
+import com.api.worldline.flights.client.dto.CrazySupplierFlightsLoaded;
+import com.api.worldline.flights.client.dto.FlightCrazySupplierResponse;
+import com.api.worldline.flights.config.FareCalendarProperties;
+import com.api.worldline.flights.config.FlightMapper;
+import com.api.worldline.flights.controller.dto.FareCalendarDay;
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.exception.BusinessException;
+import com.api.worldline.flights.model.FareCalendarEntry;
+import com.api.worldline.flights.repository.FareCalendarRepository;
+import com.api.worldline.flights.repository.FlightRepository;
+import com.api.worldline.flights.service.dto.FareAggregate;
+import com.api.worldline.flights.service.dto.RouteDay;
+import com.api.worldline.flights.service.dto.RouteDayFare;
+import com.api.worldline.flights.supplier.CrazyFlightSupplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Maintains the fare calendar: cheapest fare, average fare and number of flights per route and
+ * departure day, so that a month of a route is read from one indexed range instead of a search per
+ * day.
+ * <p>
+ * Database entries are rebuilt from a single grouped query on startup, then only the route days
+ * marked in {@link FareCalendarChanges} are recomputed every {@code flights.fare-calendar.refresh-interval}.
+ * Supplier entries are replaced by the fares of each fetch from the supplier, per route day
+ * present in the fetch. Only fetches without departure or arrival time filter are used, as a
+ * filtered fetch may return part of a day. Supplier entries not fetched again within
+ * {@code flights.fare-calendar.supplier-max-age} are removed on refresh. The calendar therefore
+ * lags writes by up to one refresh interval.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FareCalendarService {
+
+    private final FlightMapper flightMapper;
+
+    private final FlightRepository flightRepository;
+    private final FareCalendarRepository fareCalendarRepository;
+    private final FareCalendarChanges fareCalendarChanges;
+    private final TransactionTemplate transactionTemplate;
+    private final FareCalendarProperties fareCalendarProperties;
+
+    private final Map<RouteDay, SupplierFares> pendingSupplierFares = new ConcurrentHashMap<>();
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    public List<FareCalendarDay> month(String departureAirport, String destinationAirport, YearMonth month) {
+        if (!fareCalendarProperties.enabled()) {
+            throw new BusinessException("Fare calendar is disabled");
+        }
+        return fareCalendarRepository.findDays(departureAirport, destinationAirport, month.atDay(1), month.atEndOfMonth());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!fareCalendarProperties.enabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        refreshLock.lock();
+        try {
+            fareCalendarChanges.drain();
+            Integer size = transactionTemplate.execute(status -> {
+                fareCalendarRepository.deleteBySource(FareCalendarEntry.DATABASE_SOURCE);
+                List<RouteDayFare> fares = flightRepository.aggregateFaresByRouteDay();
+                fareCalendarRepository.saveAll(fares.stream()
+                        .map(fare -> toEntry(fare.routeDay(), FareCalendarEntry.DATABASE_SOURCE, fare.fares(), null))
+                        .toList());
+                return fares.size();
+            });
+            log.info("Rebuilt the fare calendar with {} route days in {} ms", size, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes the route days changed since the last run from the database, stores the supplier
+     * fares fetched since then and removes expired supplier entries. On failure the route days and
+     * fares are kept for the next run.
+     */
+    @Scheduled(fixedDelayString = "${flights.fare-calendar.refresh-interval:5s}")
+    public void refresh() {
+        if (!fareCalendarProperties.enabled()) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            Set<RouteDay> changed = fareCalendarChanges.drain();
+            Map<RouteDay, SupplierFares> supplierFares = drainSupplierFares();
+            LocalDateTime expiredBefore = LocalDateTime.now().minus(fareCalendarProperties.supplierMaxAge());
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (RouteDay routeDay : changed) {
+                        FareAggregate fares = flightRepository.aggregateFares(
+                                routeDay.departureAirport(),
+                                routeDay.destinationAirport(),
+                                routeDay.day().atStartOfDay(),
+                                routeDay.day().plusDays(1).atStartOfDay());
+                        write(routeDay, FareCalendarEntry.DATABASE_SOURCE, fares);
+                    }
+                    supplierFares.forEach((routeDay, fares) -> fareCalendarRepository.save(
+                            toEntry(routeDay, CrazyFlightSupplier.NAME, fares.fares(), fares.fetchedAt())));
+                    fareCalendarRepository.deleteFetchedBefore(expiredBefore);
+                });
+            } catch (RuntimeException e) {
+                log.error("Error on refreshing the fare calendar, retrying {} route days on the next run", changed.size() + supplierFares.size(), e);
+                fareCalendarChanges.markAll(changed);
+                supplierFares.forEach(pendingSupplierFares::putIfAbsent);
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onSupplierFlightsLoaded(CrazySupplierFlightsLoaded event) {
+        if (!fareCalendarProperties.enabled() || !event.coversWholeDays()) {
+            return;
+        }
+        LocalDateTime fetchedAt = LocalDateTime.now();
+        Map<RouteDay, FareAggregate> fares = new HashMap<>();
+        for (FlightCrazySupplierResponse supplierFlight : event.flights()) {
+            FlightResponse flight = flightMapper.fromCrazySupplierToResponse(supplierFlight);
+            RouteDay routeDay = RouteDay.of(flight);
+            if (routeDay.isComplete() && flight.fare() != null) {
+                fares.merge(routeDay, FareAggregate.of(flight.fare()), FareAggregate::plus);
+            }
+        }
+        fares.forEach((routeDay, aggregate) -> pendingSupplierFares.put(routeDay, new SupplierFares(aggregate, fetchedAt)));
+    }
+
+    private Map<RouteDay, SupplierFares> drainSupplierFares() {
+        Map<RouteDay, SupplierFares> drained = new HashMap<>();
+        for (RouteDay routeDay : pendingSupplierFares.keySet()) {
+            SupplierFares fares = pendingSupplierFares.remove(routeDay);
+            if (fares != null) {
+                drained.put(routeDay, fares);
+            }
+        }
+        return drained;
+    }
+
+    private void write(RouteDay routeDay, String source, FareAggregate fares) {
+        if (fares.isEmpty()) {
+            fareCalendarRepository.deleteById(toKey(routeDay, source));
+        } else {
+            fareCalendarRepository.save(toEntry(routeDay, source, fares, null));
+        }
+    }
+
+    private static FareCalendarEntry toEntry(RouteDay routeDay, String source, FareAggregate fares, LocalDateTime fetchedAt) {
+        return new FareCalendarEntry(toKey(routeDay, source), fares.minFare(), fares.fareSum(), fares.flightCount(), fetchedAt);
+    }
+
+    private static FareCalendarEntry.Key toKey(RouteDay routeDay, String source) {
+        return new FareCalendarEntry.Key(routeDay.departureAirport(), routeDay.destinationAirport(), routeDay.day(), source);
+    }
+
+    private record SupplierFares(FareAggregate fares, LocalDateTime fetchedAt) {
+    }
+
+}
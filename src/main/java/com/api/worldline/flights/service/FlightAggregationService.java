@@ -0,0 +1,60 @@
+package com.api.worldline.flights.service;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.exception.TechnicalException;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import com.api.worldline.flights.service.dto.FlightSort;
+import com.api.worldline.flights.service.dto.RouteDay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+/**
+ * Aggregations over all flights matching a search. Flights are consumed from
+ * {@link FlightStreamService} one at a time and folded into one entry per group, so memory grows
+ * with the number of groups rather than with the number of flights.
+ */
+@Service
+@RequiredArgsConstructor
+public class FlightAggregationService {
+
+    private static final Comparator<RouteDay> ROUTE_DAY_ORDER = Comparator
+            .comparing(RouteDay::departureAirport, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(RouteDay::destinationAirport, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(RouteDay::day, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final FlightStreamService flightStreamService;
+
+    /**
+     * Cheapest flight of each route and departure day, ordered by route then day.
+     */
+    public List<FlightResponse> cheapestPerRouteAndDay(FlightSearchCriteria criteria) {
+        Map<RouteDay, FlightResponse> cheapest = new HashMap<>();
+        BinaryOperator<FlightResponse> cheaper = BinaryOperator.minBy(FlightSort.FARE.order());
+        try {
+            flightStreamService.streamFlights(criteria, new FlightSink() {
+                @Override
+                public void write(FlightResponse flight) {
+                    cheapest.merge(RouteDay.of(flight), flight, cheaper);
+                }
+
+                @Override
+                public void flush() {
+                }
+            });
+        } catch (IOException e) {
+            throw new TechnicalException("Error on aggregating flights");
+        }
+        return cheapest.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(ROUTE_DAY_ORDER))
+                .map(Map.Entry::getValue)
+                .toList();
+    }
+
+}
@@ -0,0 +1,245 @@
+package com.api.worldline.flights.service;
+
+import com.api.worldline.flights.config.FlightBatchProperties;
+import com.api.worldline.flights.config.FlightMapper;
+import com.api.worldline.flights.controller.dto.FlightBatchItemResult;
+import com.api.worldline.flights.controller.dto.FlightBatchItemStatus;
+import com.api.worldline.flights.controller.dto.FlightBatchResponse;
+import com.api.worldline.flights.controller.dto.FlightBatchUpdateRequest;
+import com.api.worldline.flights.controller.dto.FlightRequest;
+import com.api.worldline.flights.exception.BusinessException;
+import com.api.worldline.flights.index.FlightRouteIndex;
+import com.api.worldline.flights.model.Flight;
+import com.api.worldline.flights.repository.FlightRepository;
+import com.api.worldline.flights.service.dto.RouteDay;
+import com.api.worldline.flights.service.dto.VersionedFlight;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bulk variants of the {@link FlightService} write operations. Items are validated one by one,
+ * then the valid ones are written in chunks of {@code flights.batch.chunk-size}, one transaction
+ * per chunk, so Hibernate can group the statements into JDBC batches. When a chunk fails it is
+ * retried item by item, so one bad row only fails itself.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlightBatchService {
+
+    private static final String FLIGHT_NOT_FOUND = "Flight doenst exist";
+
+    private final FlightMapper flightMapper;
+
+    private final FlightRepository flightRepository;
+    private final FlightRouteIndex flightRouteIndex;
+    private final FlightDataVersion flightDataVersion;
+    private final FareCalendarChanges fareCalendarChanges;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final FlightBatchProperties flightBatchProperties;
+
+    public FlightBatchResponse saveFlightInfos(List<FlightRequest> flightRequests) {
+        checkSize(flightRequests);
+        FlightBatchItemResult[] results = new FlightBatchItemResult[flightRequests.size()];
+        List<Integer> valid = partitionValid(flightRequests, this::requestViolations, results);
+
+        writeInChunks(valid, results, "saving", (chunk, afterCommit) -> {
+            List<Flight> flights = flightRepository.saveAll(chunk.stream()
+                    .map(index -> flightMapper.toEntity(flightRequests.get(index)))
+                    .toList());
+            List<FlightBatchItemResult> chunkResults = new ArrayList<>(chunk.size());
+            List<VersionedFlight> saved = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                Flight flight = flights.get(i);
+                saved.add(new VersionedFlight(flightMapper.toResponse(flight), flight.getVersion()));
+                chunkResults.add(FlightBatchItemResult.of(chunk.get(i), flight.getId(), FlightBatchItemStatus.CREATED));
+            }
+            afterCommit.add(() -> {
+                flightRouteIndex.putAll(saved);
+                saved.forEach(flight -> fareCalendarChanges.mark(flight.flight()));
+            });
+            return chunkResults;
+        });
+        return FlightBatchResponse.of(Arrays.asList(results));
+    }
+
+    public FlightBatchResponse updateFlightInfos(List<FlightBatchUpdateRequest> updateRequests) {
+        checkSize(updateRequests);
+        FlightBatchItemResult[] results = new FlightBatchItemResult[updateRequests.size()];
+        List<Integer> valid = partitionValid(updateRequests, this::updateViolations, results);
+
+        writeInChunks(valid, results, "updating", (chunk, afterCommit) -> {
+            Map<Long, Flight> flights = new HashMap<>();
+            flightRepository.findAllById(chunk.stream().map(index -> updateRequests.get(index).id()).toList())
+                    .forEach(flight -> flights.put(flight.getId(), flight));
+            List<FlightBatchItemResult> chunkResults = new ArrayList<>(chunk.size());
+            List<Flight> updated = new ArrayList<>(chunk.size());
+            List<RouteDay> previousRouteDays = new ArrayList<>(chunk.size());
+            for (Integer index : chunk) {
+                FlightBatchUpdateRequest updateRequest = updateRequests.get(index);
+                Flight flight = flights.get(updateRequest.id());
+                if (flight == null) {
+                    chunkResults.add(FlightBatchItemResult.of(index, updateRequest.id(), FlightBatchItemStatus.NOT_FOUND, List.of(FLIGHT_NOT_FOUND)));
+                    continue;
+                }
+                previousRouteDays.add(RouteDay.of(flight.getDepartureAirport(), flight.getDestinationAirport(), flight.getDepartureTime()));
+                flightMapper.updateEntity(updateRequest.flight(), flight);
+                updated.add(flight);
+                chunkResults.add(FlightBatchItemResult.of(index, flight.getId(), FlightBatchItemStatus.UPDATED));
+            }
+            if (!updated.isEmpty()) {
+                afterCommit.add(() -> {
+                    // the versions are only bumped when the chunk is flushed
+                    List<VersionedFlight> versioned = updated.stream()
+                            .map(flight -> new VersionedFlight(flightMapper.toResponse(flight), flight.getVersion()))
+                            .toList();
+                    flightRouteIndex.putAll(versioned);
+                    fareCalendarChanges.markAll(previousRouteDays);
+                    versioned.forEach(flight -> fareCalendarChanges.mark(flight.flight()));
+                });
+            }
+            return chunkResults;
+        });
+        return FlightBatchResponse.of(Arrays.asList(results));
+    }
+
+    public FlightBatchResponse deleteFlightInfos(List<Long> ids) {
+        checkSize(ids);
+        FlightBatchItemResult[] results = new FlightBatchItemResult[ids.size()];
+        List<Integer> valid = partitionValid(ids, id -> id == null ? List.of("Flight id is required") : List.of(), results);
+
+        writeInChunks(valid, results, "deleting", (chunk, afterCommit) -> {
+            Set<Long> existing = new HashSet<>();
+            List<RouteDay> previousRouteDays = new ArrayList<>(chunk.size());
+            if (fareCalendarChanges.isEnabled()) {
+                for (Flight flight : flightRepository.findAllByIdForUpdate(chunk.stream().map(ids::get).toList())) {
+                    existing.add(flight.getId());
+                    previousRouteDays.add(RouteDay.of(flight.getDepartureAirport(), flight.getDestinationAirport(), flight.getDepartureTime()));
+                }
+            } else {
+                existing.addAll(flightRepository.findExistingIds(chunk.stream().map(ids::get).toList()));
+            }
+            if (!existing.isEmpty()) {
+                flightRepository.deleteAllByIdInBatch(existing);
+                afterCommit.add(() -> {
+                    flightRouteIndex.removeAll(existing);
+                    fareCalendarChanges.markAll(previousRouteDays);
+                });
+            }
+            List<FlightBatchItemResult> chunkResults = new ArrayList<>(chunk.size());
+            for (Integer index : chunk) {
+                Long id = ids.get(index);
+                if (existing.contains(id)) {
+                    chunkResults.add(FlightBatchItemResult.of(index, id, FlightBatchItemStatus.DELETED));
+                } else {
+                    chunkResults.add(FlightBatchItemResult.of(index, id, FlightBatchItemStatus.NOT_FOUND, List.of(FLIGHT_NOT_FOUND)));
+                }
+            }
+            return chunkResults;
+        });
+        return FlightBatchResponse.of(Arrays.asList(results));
+    }
+
+    private void checkSize(List<?> items) {
+        if (items.size() > flightBatchProperties.maxItems()) {
+            throw new BusinessException("Batch must contain at most " + flightBatchProperties.maxItems() + " flights");
+        }
+    }
+
+    private List<String> requestViolations(FlightRequest flightRequest) {
+        if (flightRequest == null) {
+            return List.of("Flight is required");
+        }
+        return validator.validate(flightRequest)
+                .stream()
+                .map(ConstraintViolation::getMessage)
+                .toList();
+    }
+
+    private List<String> updateViolations(FlightBatchUpdateRequest updateRequest) {
+        if (updateRequest == null || updateRequest.id() == null) {
+            return List.of("Flight id is required");
+        }
+        return requestViolations(updateRequest.flight());
+    }
+
+    /**
+     * Records an INVALID result for every item with violations and returns the indexes of the others.
+     */
+    private static <T> List<Integer> partitionValid(List<T> items, Function<T, List<String>> violations, FlightBatchItemResult[] results) {
+        List<Integer> valid = new ArrayList<>(items.size());
+        for (int index = 0; index < items.size(); index++) {
+            List<String> messages = violations.apply(items.get(index));
+            if (messages.isEmpty()) {
+                valid.add(index);
+            } else {
+                results[index] = FlightBatchItemResult.of(index, null, FlightBatchItemStatus.INVALID, messages);
+            }
+        }
+        return valid;
+    }
+
+    private void writeInChunks(List<Integer> indexes, FlightBatchItemResult[] results, String operation, ChunkWriter writer) {
+        int chunkSize = flightBatchProperties.chunkSize();
+        for (int from = 0; from < indexes.size(); from += chunkSize) {
+            List<Integer> chunk = indexes.subList(from, Math.min(from + chunkSize, indexes.size()));
+            List<Runnable> afterCommit = new ArrayList<>();
+            try {
+                afterCommit.addAll(write(chunk, results, writer));
+            } catch (RuntimeException e) {
+                log.warn("Error on {} a chunk of {} flights, retrying them one by one", operation, chunk.size(), e);
+                for (Integer index : chunk) {
+                    try {
+                        afterCommit.addAll(write(List.of(index), results, writer));
+                    } catch (RuntimeException itemException) {
+                        log.error("Error on {} flight at index {}", operation, index, itemException);
+                        results[index] = FlightBatchItemResult.of(index, null, FlightBatchItemStatus.FAILED, List.of("Error on " + operation + " flight"));
+                    }
+                }
+            }
+            // outside of the retry: a failure here must not write committed items a second time
+            if (!afterCommit.isEmpty()) {
+                try {
+                    afterCommit.forEach(Runnable::run);
+                } finally {
+                    flightDataVersion.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the chunk in its own transaction and returns the actions to run once it has committed.
+     */
+    private List<Runnable> write(List<Integer> chunk, FlightBatchItemResult[] results, ChunkWriter writer) {
+        List<Runnable> afterCommit = new ArrayList<>(chunk.size());
+        List<FlightBatchItemResult> chunkResults = transactionTemplate.execute(status -> writer.write(chunk, afterCommit));
+        chunkResults.forEach(result -> results[result.index()] = result);
+        return afterCommit;
+    }
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+
+        /**
+         * Writes the items at the given indexes inside the current transaction. Route index updates
+         * are queued in {@code afterCommit}, one bulk update per chunk, and only applied once the
+         * transaction has committed.
+         */
+        List<FlightBatchItemResult> write(List<Integer> chunk, List<Runnable> afterCommit);
+    }
+}
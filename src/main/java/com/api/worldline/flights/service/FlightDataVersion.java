@@ -0,0 +1,26 @@
+package com.api.worldline.flights.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the flights stored in database, bumped by every write path of this instance once
+ * the write is visible to searches, in the database and in the route index: a search that reads
+ * a version sees every write counted in it. It starts from the startup time so that validators
+ * built before a restart are never reused.
+ */
+@Component
+public class FlightDataVersion {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    public void increment() {
+        version.incrementAndGet();
+    }
+
+}
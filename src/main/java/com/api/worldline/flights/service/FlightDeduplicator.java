@@ -0,0 +1,88 @@
+package com.api.worldline.flights.service;
+
+import com.api.worldline.flights.config.FlightDedupProperties;
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.service.dto.FlightCursor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps one flight per (airline, departure airport, destination airport, departure time), chosen
+ * by the configured {@link FlightDedupProperties.Policy}. A single pass over the flights with a
+ * hash map of the current winner of each key; winners keep their relative order.
+ */
+@Component
+public class FlightDeduplicator {
+
+    private final boolean enabled;
+    private final Comparator<FlightResponse> preference;
+
+    public FlightDeduplicator(FlightDedupProperties properties) {
+        this.enabled = properties.enabled();
+        Comparator<FlightResponse> cheapest = Comparator
+                .comparing(FlightResponse::fare, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(FlightCursor.FLIGHT_ORDER);
+        if (properties.policy() == FlightDedupProperties.Policy.CHEAPEST) {
+            this.preference = cheapest;
+        } else {
+            List<String> preferredSuppliers = properties.preferredSuppliers();
+            this.preference = Comparator
+                    .comparingInt((FlightResponse flight) -> rank(preferredSuppliers, flight.supplier()))
+                    .thenComparing(cheapest);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<FlightResponse> deduplicate(List<FlightResponse> flights) {
+        if (!enabled || flights.size() < 2) {
+            return flights;
+        }
+        List<FlightResponse> kept = new ArrayList<>(flights.size());
+        Map<Key, Integer> winners = new HashMap<>(flights.size() * 4 / 3 + 1);
+        int replaced = 0;
+        for (FlightResponse flight : flights) {
+            Key key = Key.of(flight);
+            Integer winner = winners.putIfAbsent(key, kept.size());
+            if (winner == null) {
+                kept.add(flight);
+            } else if (preference.compare(flight, kept.get(winner)) < 0) {
+                kept.set(winner, null);
+                winners.put(key, kept.size());
+                kept.add(flight);
+                replaced++;
+            }
+        }
+        if (replaced == 0) {
+            return kept;
+        }
+        List<FlightResponse> unique = new ArrayList<>(kept.size() - replaced);
+        for (FlightResponse flight : kept) {
+            if (flight != null) {
+                unique.add(flight);
+            }
+        }
+        return unique;
+    }
+
+    private static int rank(List<String> preferredSuppliers, String supplier) {
+        int rank = preferredSuppliers.indexOf(supplier);
+        return rank < 0 ? Integer.MAX_VALUE : rank;
+    }
+
+    private record Key(String airline, String departureAirport, String destinationAirport, LocalDateTime departureTime) {
+
+        static Key of(FlightResponse flight) {
+            return new Key(flight.airline(), flight.departureAirport(), flight.destinationAirport(), flight.departureTime());
+        }
+    }
+
+}
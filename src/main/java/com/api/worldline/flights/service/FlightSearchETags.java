@@ -0,0 +1,99 @@
+package com.api.worldline.flights.service;
+
+import com.api.worldline.flights.service.dto.FlightPageRequest;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import com.api.worldline.flights.service.dto.FlightSearchResult;
+import com.api.worldline.flights.service.dto.FlightSort;
+import com.api.worldline.flights.supplier.SupplierAggregator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Builds the ETag of a page of flights from the database version, the version of each supplier's
+ * cached results and the normalized search parameters, either before searching, to answer
+ * {@code If-None-Match}, or from the supplier versions a search result was built from.
+ */
+@Component
+@RequiredArgsConstructor
+public class FlightSearchETags {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final FlightDataVersion flightDataVersion;
+    private final SupplierAggregator supplierAggregator;
+
+    /**
+     * Database version to build the ETag from; read it before searching so that a write racing
+     * with the search can only make the ETag older than the body, never newer.
+     */
+    public long dataVersion() {
+        return flightDataVersion.current();
+    }
+
+    /**
+     * Version of the results every supplier would currently return, to check {@code If-None-Match}
+     * before searching; empty when a supplier cannot tell without being called.
+     */
+    public Optional<String> supplierVersion(FlightSearchCriteria criteria) {
+        return supplierAggregator.resultVersion(criteria);
+    }
+
+    /**
+     * Version of the supplier results actually merged into a search result. Build the ETag of a
+     * response from it rather than from {@link #supplierVersion}: a cache entry reloaded after
+     * the search would otherwise give the body the ETag of data it does not contain.
+     */
+    public Optional<String> supplierVersion(FlightSearchResult result) {
+        return Optional.ofNullable(result.supplierVersion());
+    }
+
+    /**
+     * ETag of the page given the database version read before searching and a supplier version,
+     * or empty when there is no supplier version.
+     */
+    public Optional<String> of(long dataVersion, Optional<String> supplierVersion,
+                               FlightSearchCriteria criteria, FlightPageRequest pageRequest) {
+        return of(dataVersion, supplierVersion, criteria,
+                "page",
+                pageRequest.after() == null ? "" : pageRequest.after().encode(),
+                Integer.toString(pageRequest.size()));
+    }
+
+    /**
+     * ETag of the first {@code limit} flights in the given order, as {@link #of(long, Optional, FlightSearchCriteria, FlightPageRequest)}.
+     */
+    public Optional<String> of(long dataVersion, Optional<String> supplierVersion,
+                               FlightSearchCriteria criteria, FlightSort sort, int limit) {
+        return of(dataVersion, supplierVersion, criteria, "top", sort.name(), Integer.toString(limit));
+    }
+
+    private static Optional<String> of(long dataVersion, Optional<String> supplierVersion,
+                                       FlightSearchCriteria criteria, String... request) {
+        return supplierVersion
+                .map(version -> hash(String.join("|",
+                        Long.toString(dataVersion),
+                        version,
+                        String.valueOf(criteria.airline()),
+                        String.valueOf(criteria.departureAirport()),
+                        String.valueOf(criteria.destinationAirport()),
+                        String.valueOf(criteria.departureTime()),
+                        String.valueOf(criteria.arrivalTime()),
+                        String.join("|", request))));
+    }
+
+    /**
+     * 64-bit FNV-1a, plenty to tell apart the versions of a single URL.
+     */
+    private static String hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return Long.toHexString(hash);
+    }
+
+}
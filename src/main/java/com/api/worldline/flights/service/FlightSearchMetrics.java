@@ -0,0 +1,68 @@
+package com.api.worldline.flights.service;
+
+import com.api.worldline.flights.supplier.SupplierResult;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Meters of the search pipeline, so that the time of a slow search can be split between the
+ * database, each supplier and the merge:
+ * <ul>
+ *     <li>{@code flights.search.stage}: time of a stage, tagged {@code database}, {@code index},
+ *     {@code suppliers} (waiting for all of them) or {@code merge};</li>
+ *     <li>{@code flights.search.supplier}: time of a single supplier call, tagged with its status;</li>
+ *     <li>{@code flights.search.results}: number of flights per source and per returned page;</li>
+ *     <li>{@code flights.search.coalesced}: searches answered by an identical search already in flight.</li>
+ * </ul>
+ * Histograms and percentiles are configured under {@code management.metrics.distribution}.
+ */
+@Component
+@RequiredArgsConstructor
+public class FlightSearchMetrics {
+
+    public static final String STAGE_DATABASE = "database";
+    public static final String STAGE_INDEX = "index";
+    public static final String STAGE_SUPPLIERS = "suppliers";
+    public static final String STAGE_MERGE = "merge";
+    public static final String SOURCE_PAGE = "page";
+
+    private final MeterRegistry meterRegistry;
+
+    public <T> T timeStage(String stage, Supplier<T> action) {
+        return Timer.builder("flights.search.stage")
+                .description("Time spent in a stage of a flight search")
+                .tag("stage", stage)
+                .register(meterRegistry)
+                .record(action);
+    }
+
+    public void recordSupplier(SupplierResult result, long startNanos) {
+        Timer.builder("flights.search.supplier")
+                .description("Time of a supplier call, until its result or its timeout")
+                .tag("supplier", result.supplier())
+                .tag("status", result.status().name())
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        recordResults(result.supplier(), result.flights().size());
+    }
+
+    public void recordResults(String source, int size) {
+        DistributionSummary.builder("flights.search.results")
+                .description("Number of flights returned by a source of a flight search")
+                .baseUnit("flights")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    public void recordCoalesced() {
+        meterRegistry.counter("flights.search.coalesced").increment();
+    }
+
+}
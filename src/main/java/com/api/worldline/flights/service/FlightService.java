@@ -1,23 +1,48 @@
 package com.api.worldline.flights.service;
 
-import com.api.worldline.flights.client.CrazySupplierClient;
-import com.api.worldline.flights.client.dto.FlightCrazySupplierRequest;
-import com.api.worldline.flights.client.dto.FlightCrazySupplierResponse;
 import com.api.worldline.flights.config.FlightMapper;
+import com.api.worldline.flights.config.FlightSearchProperties;
 import com.api.worldline.flights.controller.dto.FlightRequest;
 import com.api.worldline.flights.controller.dto.FlightResponse;
 import com.api.worldline.flights.exception.BusinessException;
+import com.api.worldline.flights.exception.PreconditionFailedException;
 import com.api.worldline.flights.exception.TechnicalException;
+import com.api.worldline.flights.index.FlightRouteIndex;
 import com.api.worldline.flights.model.Flight;
 import com.api.worldline.flights.repository.FlightRepository;
+import com.api.worldline.flights.service.dto.FlightCursor;
+import com.api.worldline.flights.service.dto.FlightPageRequest;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import com.api.worldline.flights.service.dto.FlightSearchResult;
+import com.api.worldline.flights.service.dto.FlightSort;
+import com.api.worldline.flights.service.dto.RouteDay;
+import com.api.worldline.flights.service.dto.VersionedFlight;
+import com.api.worldline.flights.supplier.SupplierAggregator;
+import com.api.worldline.flights.supplier.SupplierResult;
+import com.api.worldline.flights.supplier.SupplierStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
@@ -27,68 +52,416 @@ public class FlightService {
     private final FlightMapper flightMapper;
 
     private final FlightRepository flightRepository;
-    private final CrazySupplierClient crazySupplierClient;
+    private final TransactionTemplate transactionTemplate;
+    private final SupplierAggregator supplierAggregator;
+    private final FlightRouteIndex flightRouteIndex;
+    private final FlightDataVersion flightDataVersion;
+    private final FareCalendarChanges fareCalendarChanges;
+    private final FlightSearchMetrics flightSearchMetrics;
+    private final FlightDeduplicator flightDeduplicator;
 
-    public List<FlightResponse> getFlights(String airline,
-                                          String departureAirport,
-                                          String destinationAirport,
-                                          LocalDateTime departureTime,
-                                          LocalDateTime arrivalTime) {
+    @Qualifier("flightSearchExecutor")
+    private final Executor flightSearchExecutor;
+    private final FlightSearchProperties flightSearchProperties;
 
-        List<FlightResponse> result = new ArrayList<>();
-        List<Flight> flightInfos = flightRepository.searchFlights(airline, departureAirport, destinationAirport, departureTime, arrivalTime);
-        if (!CollectionUtils.isEmpty(flightInfos)) {
-            result.addAll(
-                    flightInfos.stream()
-                            .map(flightMapper::toResponse)
-                            .toList()
-            );
+    private final ConcurrentMap<SearchKey, CompletableFuture<FlightSearchResult>> inFlightSearches = new ConcurrentHashMap<>();
+
+    /**
+     * Searches one page of flights from the database and all suppliers, merged in
+     * {@link FlightCursor} order. Only {@code size + 1} rows are read from the database, so deep
+     * pages cost the same as the first one. Once the {@link FlightRouteIndex} is loaded the
+     * database page is served from it instead.
+     */
+    public FlightSearchResult searchFlights(FlightSearchCriteria criteria, FlightPageRequest pageRequest) {
+        return coalesce(new SearchKey(flightDataVersion.current(), criteria, pageRequest, null, 0),
+                () -> searchPage(criteria, pageRequest));
+    }
+
+    private FlightSearchResult searchPage(FlightSearchCriteria criteria, FlightPageRequest pageRequest) {
+        CompletableFuture<List<FlightResponse>> databaseLeg = startDatabaseLeg(
+                () -> flightRouteIndex.searchPage(criteria, pageRequest.after(), pageRequest.size() + 1),
+                () -> searchDatabase(criteria, pageRequest));
+
+        List<SupplierResult> supplierResults = flightSearchMetrics.timeStage(FlightSearchMetrics.STAGE_SUPPLIERS,
+                () -> supplierAggregator.searchFlights(criteria));
+
+        List<FlightResponse> databaseFlights = awaitDatabase(databaseLeg);
+        flightSearchMetrics.recordResults(FlightSearchMetrics.STAGE_DATABASE, databaseFlights.size());
+        FlightSearchResult result = flightSearchMetrics.timeStage(FlightSearchMetrics.STAGE_MERGE,
+                () -> mergePage(databaseFlights, supplierResults, pageRequest));
+        flightSearchMetrics.recordResults(FlightSearchMetrics.SOURCE_PAGE, result.flights().size());
+        return result;
+    }
+
+    /**
+     * The first {@code limit} flights of a search in the given order, across the database and all
+     * suppliers, without paging. Sorting by fare goes through a bounded {@link TopK} heap fed by
+     * every source, so the union is never sorted as a whole and the database only returns its
+     * {@code limit} cheapest rows.
+     */
+    public FlightSearchResult searchTopFlights(FlightSearchCriteria criteria, FlightSort sort, int limit) {
+        if (sort == FlightSort.DEPARTURE_TIME) {
+            FlightSearchResult page = searchFlights(criteria, new FlightPageRequest(null, limit));
+            return new FlightSearchResult(page.flights(), page.supplierStatuses(), null, page.supplierVersion());
         }
+        return coalesce(new SearchKey(flightDataVersion.current(), criteria, null, sort, limit),
+                () -> searchTop(criteria, sort, limit));
+    }
+
+    private FlightSearchResult searchTop(FlightSearchCriteria criteria, FlightSort sort, int limit) {
+        CompletableFuture<List<FlightResponse>> databaseLeg = startDatabaseLeg(
+                () -> topFromIndex(criteria, sort, limit),
+                () -> searchCheapestDatabase(criteria, limit));
+
+        List<SupplierResult> supplierResults = flightSearchMetrics.timeStage(FlightSearchMetrics.STAGE_SUPPLIERS,
+                () -> supplierAggregator.searchFlights(criteria));
 
+        List<FlightResponse> databaseFlights = awaitDatabase(databaseLeg);
+        flightSearchMetrics.recordResults(FlightSearchMetrics.STAGE_DATABASE, databaseFlights.size());
+        FlightSearchResult result = flightSearchMetrics.timeStage(FlightSearchMetrics.STAGE_MERGE,
+                () -> mergeTop(criteria, databaseFlights, supplierResults, sort, limit));
+        flightSearchMetrics.recordResults(FlightSearchMetrics.SOURCE_PAGE, result.flights().size());
+        return result;
+    }
+
+    /**
+     * Runs the search unless an identical one is already in flight, in which case its result is
+     * shared: a burst of identical searches costs one database query and one call per supplier.
+     * Nothing is kept once the search completes, so results are never older than the search they
+     * joined. The data version is part of the key, so searches started after a write do not join
+     * one that started before it. Shared results must not be modified.
+     */
+    private FlightSearchResult coalesce(SearchKey key, Supplier<FlightSearchResult> search) {
+        if (!flightSearchProperties.coalesceSearches()) {
+            return search.get();
+        }
+        CompletableFuture<FlightSearchResult> ownSearch = new CompletableFuture<>();
+        CompletableFuture<FlightSearchResult> inFlight = inFlightSearches.putIfAbsent(key, ownSearch);
+        if (inFlight != null) {
+            flightSearchMetrics.recordCoalesced();
+            return awaitSearch(inFlight);
+        }
         try {
-            List<FlightCrazySupplierResponse> flights = crazySupplierClient.getFlights(new FlightCrazySupplierRequest(departureAirport, destinationAirport, departureTime, arrivalTime));
-            if (!CollectionUtils.isEmpty(flights)) {
-                result.addAll(
-                        flights.stream()
-                                .map(flightMapper::fromCrazySupplierToResponse)
-                                .toList()
-                );
+            FlightSearchResult result = search.get();
+            ownSearch.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            ownSearch.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightSearches.remove(key, ownSearch);
+        }
+    }
+
+    private static FlightSearchResult awaitSearch(CompletableFuture<FlightSearchResult> search) {
+        try {
+            return search.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Deduplicates the database and supplier flights in one pass, then keeps the first
+     * {@code limit} of them. Database rows that lost to a supplier flight or to another row leave
+     * room for rows that were not read, so when fewer than {@code limit} flights are known to come
+     * before the last row read, the database leg is started again with {@code limit} rows plus one
+     * per supplier flight and per duplicated row. That read is enough unless it brings duplicates
+     * of its own, in which case each further read at least doubles the extra rows.
+     */
+    private FlightSearchResult mergeTop(FlightSearchCriteria criteria, List<FlightResponse> databaseFlights,
+                                        List<SupplierResult> supplierResults, FlightSort sort, int limit) {
+        Map<String, SupplierStatus> supplierStatuses = new LinkedHashMap<>();
+        List<FlightResponse> supplierFlights = new ArrayList<>();
+        for (SupplierResult supplierResult : supplierResults) {
+            supplierFlights.addAll(supplierResult.flights());
+            supplierStatuses.put(supplierResult.supplier(), supplierResult.status());
+        }
+
+        List<FlightResponse> flights = deduplicate(databaseFlights, supplierFlights);
+        int read = limit;
+        while (databaseFlights.size() == read && !isComplete(flights, databaseFlights.getLast(), sort, limit)) {
+            int duplicates = databaseFlights.size() - flightDeduplicator.deduplicate(databaseFlights).size();
+            read = Math.max(limit + supplierFlights.size() + duplicates, 2 * read - limit);
+            int rows = read;
+            databaseFlights = awaitDatabase(startDatabaseLeg(
+                    () -> topFromIndex(criteria, sort, rows),
+                    () -> searchCheapestDatabase(criteria, rows)));
+            flights = deduplicate(databaseFlights, supplierFlights);
+        }
+
+        TopK<FlightResponse> top = new TopK<>(limit, sort.order());
+        top.offerAll(flights);
+        return new FlightSearchResult(top.toSortedList(), supplierStatuses, null, SupplierResult.versionOf(supplierResults));
+    }
+
+    /**
+     * Whether at least {@code limit} of the deduplicated flights come no later than the last
+     * database row read, so that no unread row can be among the first {@code limit}.
+     */
+    private static boolean isComplete(List<FlightResponse> flights, FlightResponse lastRead, FlightSort sort, int limit) {
+        int before = 0;
+        for (FlightResponse flight : flights) {
+            if (sort.order().compare(flight, lastRead) <= 0 && ++before >= limit) {
+                return true;
             }
-        } catch (Exception ex) {
-            log.error("Error on calling Crazy supplier", ex);
         }
+        return false;
+    }
 
-        return result;
+    private List<FlightResponse> deduplicate(List<FlightResponse> databaseFlights, List<FlightResponse> supplierFlights) {
+        List<FlightResponse> flights = new ArrayList<>(databaseFlights.size() + supplierFlights.size());
+        flights.addAll(databaseFlights);
+        flights.addAll(supplierFlights);
+        return flightDeduplicator.deduplicate(flights);
+    }
+
+    /**
+     * Reads the database part of a search from the route index when loaded, otherwise from the
+     * database on the search executor, bounded by the database timeout. The search fails when the
+     * executor is saturated instead of reading the database on the caller's thread.
+     */
+    private CompletableFuture<List<FlightResponse>> startDatabaseLeg(Supplier<List<FlightResponse>> fromIndex,
+                                                                     Supplier<List<FlightResponse>> fromDatabase) {
+        if (flightRouteIndex.isLoaded()) {
+            return CompletableFuture.completedFuture(flightSearchMetrics.timeStage(FlightSearchMetrics.STAGE_INDEX, fromIndex));
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> flightSearchMetrics.timeStage(FlightSearchMetrics.STAGE_DATABASE, fromDatabase), flightSearchExecutor)
+                    .orTimeout(flightSearchProperties.databaseTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("Flight search executor saturated, rejecting search: {}", e.getMessage());
+            throw new TechnicalException("Too many flight searches in progress");
+        }
+    }
+
+    private List<FlightResponse> topFromIndex(FlightSearchCriteria criteria, FlightSort sort, int limit) {
+        TopK<FlightResponse> top = new TopK<>(limit, sort.order());
+        flightRouteIndex.forEachMatch(criteria, top::offer);
+        return top.toSortedList();
+    }
+
+    private FlightSearchResult mergePage(List<FlightResponse> databaseFlights, List<SupplierResult> supplierResults,
+                                         FlightPageRequest pageRequest) {
+        Map<String, SupplierStatus> supplierStatuses = new LinkedHashMap<>();
+        List<FlightResponse> supplierFlights = new ArrayList<>();
+        for (SupplierResult supplierResult : supplierResults) {
+            for (FlightResponse flight : supplierResult.flights()) {
+                if (pageRequest.after() == null || pageRequest.after().isBefore(flight)) {
+                    supplierFlights.add(flight);
+                }
+            }
+            supplierStatuses.put(supplierResult.supplier(), supplierResult.status());
+        }
+        supplierFlights.sort(FlightCursor.FLIGHT_ORDER);
+
+        List<FlightResponse> candidates = merge(databaseFlights, supplierFlights, pageRequest.size() + 1);
+        List<FlightResponse> page = candidates;
+        String nextPageToken = null;
+        if (candidates.size() > pageRequest.size()) {
+            page = candidates.subList(0, pageEnd(candidates, pageRequest.size()));
+            nextPageToken = FlightCursor.of(page.getLast()).encode();
+        }
+
+        return new FlightSearchResult(flightDeduplicator.deduplicate(page), supplierStatuses, nextPageToken,
+                SupplierResult.versionOf(supplierResults));
+    }
+
+    /**
+     * Where to cut a full page. Duplicates share their departure time, so when deduplicating the
+     * page ends before the flights departing at the same time as the first flight of the next
+     * page; they all move to the next page, where they are deduplicated together. Pages are only
+     * cut within such a run when it fills the whole page.
+     */
+    private int pageEnd(List<FlightResponse> candidates, int size) {
+        if (!flightDeduplicator.isEnabled()) {
+            return size;
+        }
+        LocalDateTime nextDeparture = candidates.get(size).departureTime();
+        int end = size;
+        while (end > 0 && Objects.equals(candidates.get(end - 1).departureTime(), nextDeparture)) {
+            end--;
+        }
+        return end == 0 ? size : end;
+    }
+
+    private List<FlightResponse> searchDatabase(FlightSearchCriteria criteria, FlightPageRequest pageRequest) {
+        FlightCursor after = pageRequest.after();
+        List<Flight> flightInfos = flightRepository.searchFlightsPage(
+                criteria.airline(),
+                criteria.departureAirport(),
+                criteria.destinationAirport(),
+                criteria.departureTime(),
+                criteria.arrivalTime(),
+                after == null ? null : after.departureTime(),
+                after == null ? null : after.databaseAfterId(),
+                PageRequest.ofSize(pageRequest.size() + 1)
+        );
+        if (CollectionUtils.isEmpty(flightInfos)) {
+            return List.of();
+        }
+        return flightInfos.stream()
+                .map(flightMapper::toResponse)
+                .toList();
+    }
+
+    private List<FlightResponse> searchCheapestDatabase(FlightSearchCriteria criteria, int limit) {
+        return flightRepository.searchCheapestFlights(
+                        criteria.airline(),
+                        criteria.departureAirport(),
+                        criteria.destinationAirport(),
+                        criteria.departureTime(),
+                        criteria.arrivalTime(),
+                        PageRequest.ofSize(limit))
+                .stream()
+                .map(flightMapper::toResponse)
+                .toList();
+    }
+
+    private static List<FlightResponse> merge(List<FlightResponse> first, List<FlightResponse> second, int limit) {
+        List<FlightResponse> merged = new ArrayList<>(Math.min(limit, first.size() + second.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            if (j >= second.size() || (i < first.size() && FlightCursor.FLIGHT_ORDER.compare(first.get(i), second.get(j)) <= 0)) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
+    }
+
+    private List<FlightResponse> awaitDatabase(CompletableFuture<List<FlightResponse>> databaseLeg) {
+        try {
+            return databaseLeg.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                log.error("Timeout on searching flights in database", e);
+                throw new TechnicalException("Timeout on searching flights");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 
     public FlightResponse saveFlightInfo(FlightRequest flightRequest) {
         try {
             Flight flight = flightMapper.toEntity(flightRequest);
             Flight savedFlight = flightRepository.save(flight);
-            return flightMapper.toResponse(savedFlight);
+            FlightResponse flightResponse = flightMapper.toResponse(savedFlight);
+            try {
+                flightRouteIndex.put(new VersionedFlight(flightResponse, savedFlight.getVersion()));
+            } finally {
+                flightDataVersion.increment();
+            }
+            fareCalendarChanges.mark(flightResponse);
+            return flightResponse;
         } catch (Exception e) {
             log.error("Error on saving flight", e);
             throw new TechnicalException("Error on saving flight");
         }
     }
 
-    public void updateFlightInfo(Long id, FlightRequest flightRequest) {
+    public VersionedFlight getFlightInfo(Long id) {
         Flight flight = flightRepository.findById(id).orElseThrow(() -> new BusinessException("Flight doenst exist"));
+        return new VersionedFlight(flightMapper.toResponse(flight), flight.getVersion());
+    }
+
+    public void updateFlightInfo(Long id, FlightRequest flightRequest) {
+        updateFlightInfo(id, null, flightRequest);
+    }
+
+    /**
+     * Overwrites a flight with a single UPDATE statement. With an {@code expectedVersion} the update
+     * only applies if nobody changed the flight since that version was read.
+     *
+     * @return the new version when {@code expectedVersion} was given, null otherwise
+     */
+    public Long updateFlightInfo(Long id, Long expectedVersion, FlightRequest flightRequest) {
+        Flight flightUpdated;
+        RouteDayWrite write;
         try {
-            Flight flightUpdated = flightMapper.toEntity(flightRequest);
-            flightUpdated.setId(flight.getId());
-            flightRepository.save(flightUpdated);
+            flightUpdated = flightMapper.toEntity(flightRequest);
+            write = transactionTemplate.execute(status -> {
+                List<RouteDay> previousRouteDays = lockRouteDays(id);
+                int rows = expectedVersion == null
+                        ? flightRepository.updateFlight(id, flightUpdated)
+                        : flightRepository.updateFlightIfVersion(id, expectedVersion, flightUpdated);
+                if (rows == 0) {
+                    return new RouteDayWrite(previousRouteDays, 0, null);
+                }
+                // the update keeps the row locked, so this is the version it commits with
+                Long version = expectedVersion != null ? expectedVersion + 1 : flightRepository.findVersionById(id);
+                return new RouteDayWrite(previousRouteDays, rows, version);
+            });
         } catch (Exception e) {
             throw new TechnicalException("Error on updating flight");
         }
+        if (write.rows() == 0) {
+            if (expectedVersion != null && flightRepository.existsById(id)) {
+                throw new PreconditionFailedException("Flight was modified by another request");
+            }
+            throw new BusinessException("Flight doenst exist");
+        }
+        flightUpdated.setId(id);
+        FlightResponse flightResponse = flightMapper.toResponse(flightUpdated);
+        try {
+            flightRouteIndex.put(new VersionedFlight(flightResponse, write.version()));
+        } finally {
+            flightDataVersion.increment();
+        }
+        fareCalendarChanges.markAll(write.previousRouteDays());
+        fareCalendarChanges.mark(flightResponse);
+        return expectedVersion == null ? null : write.version();
     }
 
     public void deleteFlightInfo(Long id) {
         try {
-            flightRepository.deleteById(id);
+            List<RouteDay> previousRouteDays = transactionTemplate.execute(status -> {
+                List<RouteDay> routeDays = lockRouteDays(id);
+                flightRepository.deleteById(id);
+                return routeDays;
+            });
+            try {
+                flightRouteIndex.remove(id);
+            } finally {
+                flightDataVersion.increment();
+            }
+            fareCalendarChanges.markAll(previousRouteDays);
         } catch (Exception e) {
             throw new TechnicalException("Error on deleting flight");
         }
     }
 
+    /**
+     * Route day of a flight about to be overwritten or deleted, read with a write lock in the
+     * transaction of the write, so no other write can move the flight in between. Only read when
+     * the fare calendar needs it.
+     */
+    private List<RouteDay> lockRouteDays(Long id) {
+        if (!fareCalendarChanges.isEnabled()) {
+            return List.of();
+        }
+        return flightRepository.findAllByIdForUpdate(List.of(id)).stream()
+                .map(flight -> RouteDay.of(flight.getDepartureAirport(), flight.getDestinationAirport(), flight.getDepartureTime()))
+                .toList();
+    }
+
+    /**
+     * Identity of a search for coalescing: a page request for paged searches, a sort and limit
+     * otherwise.
+     */
+    private record SearchKey(long dataVersion, FlightSearchCriteria criteria, FlightPageRequest pageRequest,
+                             FlightSort sort, int limit) {
+    }
+
+    private record RouteDayWrite(List<RouteDay> previousRouteDays, int rows, Long version) {
+    }
+
 }
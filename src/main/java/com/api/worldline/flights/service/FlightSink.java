@@ -0,0 +1,19 @@
+package com.api.worldline.flights.service;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+
+import java.io.IOException;
+
+/**
+ * Destination of a streamed flight search.
+ */
+public interface FlightSink {
+
+    void write(FlightResponse flight) throws IOException;
+
+    /**
+     * Called after each source has been written, so that its flights reach the client right away.
+     */
+    void flush() throws IOException;
+
+}
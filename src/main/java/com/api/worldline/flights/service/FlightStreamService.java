@@ -0,0 +1,94 @@
+package com.api.worldline.flights.service;
+
+import com.api.worldline.flights.config.FlightMapper;
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.index.FlightRouteIndex;
+import com.api.worldline.flights.model.Flight;
+import com.api.worldline.flights.repository.FlightRepository;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import com.api.worldline.flights.supplier.SupplierAggregator;
+import com.api.worldline.flights.supplier.SupplierResult;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+
+/**
+ * Streaming variant of {@link FlightService#searchFlights}. Suppliers are queried in the background
+ * while database rows are read through a cursor and written one by one, so memory does not grow
+ * with the size of the result and a slow client slows down the cursor instead of buffering.
+ * Supplier results are written in completion order once the database rows are out.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlightStreamService {
+
+    private final FlightMapper flightMapper;
+
+    private final FlightRepository flightRepository;
+    private final SupplierAggregator supplierAggregator;
+    private final FlightRouteIndex flightRouteIndex;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public void streamFlights(FlightSearchCriteria criteria, FlightSink sink) throws IOException {
+        BlockingQueue<SupplierResult> supplierResults = new LinkedBlockingQueue<>();
+        List<CompletableFuture<SupplierResult>> supplierLegs = supplierAggregator.searchFlightsAsync(criteria);
+        supplierLegs.forEach(leg -> leg.thenAccept(supplierResults::add));
+
+        if (flightRouteIndex.isLoaded()) {
+            for (FlightResponse flight : flightRouteIndex.search(criteria)) {
+                sink.write(flight);
+            }
+        } else {
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeDatabaseFlights(criteria, sink));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        sink.flush();
+
+        for (int i = 0; i < supplierLegs.size(); i++) {
+            SupplierResult supplierResult = takeSupplierResult(supplierResults);
+            for (FlightResponse flight : supplierResult.flights()) {
+                sink.write(flight);
+            }
+            sink.flush();
+        }
+    }
+
+    private void writeDatabaseFlights(FlightSearchCriteria criteria, FlightSink sink) {
+        try (Stream<Flight> flights = flightRepository.streamFlights(criteria.airline(), criteria.departureAirport(), criteria.destinationAirport(), criteria.departureTime(), criteria.arrivalTime())) {
+            Iterator<Flight> iterator = flights.iterator();
+            while (iterator.hasNext()) {
+                Flight flight = iterator.next();
+                sink.write(flightMapper.toResponse(flight));
+                entityManager.detach(flight);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private SupplierResult takeSupplierResult(BlockingQueue<SupplierResult> supplierResults) throws IOException {
+        try {
+            return supplierResults.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for suppliers", e);
+        }
+    }
+
+}
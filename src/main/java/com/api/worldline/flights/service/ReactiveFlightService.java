@@ -0,0 +1,125 @@
+package com.api.worldline.flights.service;
+
+import com.api.worldline.flights.client.ReactiveCrazySupplierClient;
+import com.api.worldline.flights.config.FlightMapper;
+import com.api.worldline.flights.config.FlightSearchProperties;
+import com.api.worldline.flights.controller.dto.FlightRequest;
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.exception.TechnicalException;
+import com.api.worldline.flights.index.FlightRouteIndex;
+import com.api.worldline.flights.repository.FlightRepository;
+import com.api.worldline.flights.service.dto.FlightCursor;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import com.api.worldline.flights.service.dto.VersionedFlight;
+import com.api.worldline.flights.supplier.CrazyFlightSupplier;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Non-blocking variant of {@link FlightService} for the reactive stack. Database and supplier
+ * flights are emitted as each source answers, in arrival order: database flights are read in
+ * keyset pages as the subscriber asks for more, JDBC calls are offloaded to the bounded elastic
+ * scheduler so event-loop threads never block, and the supplier is called through
+ * {@link ReactiveCrazySupplierClient}. Writes reuse {@link FlightService} on the same scheduler so
+ * the data version and the route index stay consistent with the servlet stack.
+ */
+@Slf4j
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class ReactiveFlightService {
+
+    private static final int DATABASE_PAGE_SIZE = 500;
+
+    private final FlightMapper flightMapper;
+
+    private final FlightRepository flightRepository;
+    private final ReactiveCrazySupplierClient crazySupplierClient;
+    private final FlightRouteIndex flightRouteIndex;
+    private final FlightService flightService;
+    private final FlightSearchMetrics flightSearchMetrics;
+    private final FlightSearchProperties flightSearchProperties;
+
+    public Flux<FlightResponse> searchFlights(FlightSearchCriteria criteria) {
+        return Flux.merge(searchDatabase(criteria), searchSupplier(criteria));
+    }
+
+    /**
+     * Database flights one page at a time, the next page being read only once the previous one
+     * has been requested downstream, so the whole result is never held in memory.
+     */
+    private Flux<FlightResponse> searchDatabase(FlightSearchCriteria criteria) {
+        return readPage(criteria, null)
+                .expand(page -> page.size() < DATABASE_PAGE_SIZE ? Mono.empty() : readPage(criteria, FlightCursor.of(page.getLast())))
+                .flatMapIterable(page -> page);
+    }
+
+    private Mono<List<FlightResponse>> readPage(FlightSearchCriteria criteria, FlightCursor after) {
+        if (flightRouteIndex.isLoaded()) {
+            return Mono.fromCallable(() -> flightSearchMetrics.timeStage(FlightSearchMetrics.STAGE_INDEX,
+                    () -> flightRouteIndex.searchPage(criteria, after, DATABASE_PAGE_SIZE)));
+        }
+        return Mono.fromCallable(() -> flightSearchMetrics.timeStage(FlightSearchMetrics.STAGE_DATABASE,
+                        () -> flightRepository.searchFlightsPage(
+                                        criteria.airline(),
+                                        criteria.departureAirport(),
+                                        criteria.destinationAirport(),
+                                        criteria.departureTime(),
+                                        criteria.arrivalTime(),
+                                        after == null ? null : after.departureTime(),
+                                        after == null ? null : after.databaseAfterId(),
+                                        PageRequest.ofSize(DATABASE_PAGE_SIZE))
+                                .stream()
+                                .map(flightMapper::toResponse)
+                                .toList()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .timeout(flightSearchProperties.databaseTimeout())
+                .onErrorMap(TimeoutException.class, e -> {
+                    log.error("Timeout on searching flights in database", e);
+                    return new TechnicalException("Timeout on searching flights");
+                });
+    }
+
+    /**
+     * Supplier flights, or none when the supplier fails: like {@link FlightService}, a supplier
+     * outage degrades the result instead of failing the search.
+     */
+    private Flux<FlightResponse> searchSupplier(FlightSearchCriteria criteria) {
+        return crazySupplierClient.getFlights(CrazyFlightSupplier.toRequest(criteria))
+                .map(flightMapper::fromCrazySupplierToResponse)
+                .onErrorResume(e -> {
+                    log.error("Error on calling supplier {}", CrazyFlightSupplier.NAME, e);
+                    return Flux.empty();
+                });
+    }
+
+    public Mono<FlightResponse> saveFlightInfo(FlightRequest flightRequest) {
+        return Mono.fromCallable(() -> flightService.saveFlightInfo(flightRequest))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<VersionedFlight> getFlightInfo(Long id) {
+        return Mono.fromCallable(() -> flightService.getFlightInfo(id))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Long> updateFlightInfo(Long id, Long expectedVersion, FlightRequest flightRequest) {
+        return Mono.fromCallable(() -> flightService.updateFlightInfo(id, expectedVersion, flightRequest))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Void> deleteFlightInfo(Long id) {
+        return Mono.<Void>fromRunnable(() -> flightService.deleteFlightInfo(id))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+}
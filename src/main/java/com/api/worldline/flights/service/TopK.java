@@ -0,0 +1,50 @@
+package com.api.worldline.flights.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The {@code k} smallest elements offered so far, kept in a max-heap of at most {@code k}
+ * elements: selecting from n elements takes O(n log k) time and O(k) memory, and the elements
+ * that cannot make the cut are rejected after a single comparison.
+ */
+public final class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> order;
+    private final PriorityQueue<T> heap;
+
+    public TopK(int k, Comparator<? super T> order) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.k = k;
+        this.order = order;
+        this.heap = new PriorityQueue<>(Math.min(k, 1024), order.reversed());
+    }
+
+    public void offer(T element) {
+        if (heap.size() < k) {
+            heap.add(element);
+        } else if (order.compare(element, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    public void offerAll(Iterable<? extends T> elements) {
+        elements.forEach(this::offer);
+    }
+
+    /**
+     * The selected elements, smallest first.
+     */
+    public List<T> toSortedList() {
+        List<T> elements = new ArrayList<>(heap);
+        elements.sort(order);
+        return elements;
+    }
+
+}
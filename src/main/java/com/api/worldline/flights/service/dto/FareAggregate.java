@@ -0,0 +1,22 @@
+package com.api.worldline.flights.service.dto;
+
+/**
+ * Fares of a group of flights: cheapest fare, sum of fares and number of flights. Fares are null
+ * when the group is empty.
+ */
+public record FareAggregate(Double minFare,
+                            Double fareSum,
+                            Long flightCount) {
+
+    public static FareAggregate of(double fare) {
+        return new FareAggregate(fare, fare, 1L);
+    }
+
+    public FareAggregate plus(FareAggregate other) {
+        return new FareAggregate(Math.min(minFare, other.minFare), fareSum + other.fareSum, flightCount + other.flightCount);
+    }
+
+    public boolean isEmpty() {
+        return flightCount == null || flightCount == 0;
+    }
+}
@@ -0,0 +1,99 @@
+package com.api.worldline.flights.service.dto;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.exception.BusinessException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Position of a flight in the order used to page search results: departure time (flights without
+ * one first), then database flights by id, then supplier flights by a key derived from their data.
+ * Encoded as an opaque URL-safe page token.
+ */
+public record FlightCursor(LocalDateTime departureTime,
+                           Long id,
+                           String supplierKey) implements Comparable<FlightCursor> {
+
+    private static final Comparator<FlightCursor> ORDER = Comparator
+            .comparing(FlightCursor::departureTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(FlightCursor::id, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(FlightCursor::supplierKey, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    public static final Comparator<FlightResponse> FLIGHT_ORDER = Comparator.comparing(FlightCursor::of);
+
+    public static FlightCursor of(FlightResponse flight) {
+        if (flight.id() != null) {
+            return new FlightCursor(flight.departureTime(), flight.id(), null);
+        }
+        String supplierKey = String.join("|",
+                Objects.toString(flight.supplier(), ""),
+                Objects.toString(flight.airline(), ""),
+                Objects.toString(flight.departureAirport(), ""),
+                Objects.toString(flight.destinationAirport(), ""),
+                Objects.toString(flight.arrivalTime(), ""),
+                Objects.toString(flight.fare(), ""));
+        return new FlightCursor(flight.departureTime(), null, supplierKey);
+    }
+
+    /**
+     * Id to resume the database keyset from. Supplier flights sort after every database flight
+     * with the same departure time, so a supplier cursor skips all of them.
+     */
+    public long databaseAfterId() {
+        return id != null ? id : Long.MAX_VALUE;
+    }
+
+    public boolean isBefore(FlightResponse flight) {
+        return compareTo(of(flight)) < 0;
+    }
+
+    @Override
+    public int compareTo(FlightCursor other) {
+        return ORDER.compare(this, other);
+    }
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeBoolean(departureTime != null);
+            if (departureTime != null) {
+                out.writeLong(departureTime.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(departureTime.getNano());
+            }
+            out.writeBoolean(id != null);
+            if (id != null) {
+                out.writeLong(id);
+            }
+            out.writeBoolean(supplierKey != null);
+            if (supplierKey != null) {
+                out.writeUTF(supplierKey);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static FlightCursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            LocalDateTime departureTime = in.readBoolean()
+                    ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC)
+                    : null;
+            Long id = in.readBoolean() ? in.readLong() : null;
+            String supplierKey = in.readBoolean() ? in.readUTF() : null;
+            return new FlightCursor(departureTime, id, supplierKey);
+        } catch (IOException | RuntimeException e) {
+            throw new BusinessException("Invalid page token");
+        }
+    }
+}
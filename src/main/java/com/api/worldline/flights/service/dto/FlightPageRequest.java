@@ -0,0 +1,8 @@
+package com.api.worldline.flights.service.dto;
+
+/**
+ * Requested page of a flight search; {@code after} is null for the first page.
+ */
+public record FlightPageRequest(FlightCursor after,
+                                int size) {
+}
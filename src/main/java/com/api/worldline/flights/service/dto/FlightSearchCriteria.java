@@ -0,0 +1,10 @@
+package com.api.worldline.flights.service.dto;
+
+import java.time.LocalDateTime;
+
+public record FlightSearchCriteria(String airline,
+                                   String departureAirport,
+                                   String destinationAirport,
+                                   LocalDateTime departureTime,
+                                   LocalDateTime arrivalTime) {
+}
@@ -0,0 +1,17 @@
+package com.api.worldline.flights.service.dto;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.supplier.SupplierStatus;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A page of flights. {@code supplierVersion} identifies the supplier results merged into it, as
+ * {@code SupplierAggregator#resultVersion}, or is null when a supplier could not tell.
+ */
+public record FlightSearchResult(List<FlightResponse> flights,
+                                 Map<String, SupplierStatus> supplierStatuses,
+                                 String nextPageToken,
+                                 String supplierVersion) {
+}
@@ -0,0 +1,47 @@
+package com.api.worldline.flights.service.dto;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.exception.BusinessException;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+/**
+ * Orders a search can be sorted by. Ties are broken by {@link FlightCursor#FLIGHT_ORDER} so that
+ * the order is total and stable across requests.
+ */
+public enum FlightSort {
+
+    DEPARTURE_TIME("departureTime", FlightCursor.FLIGHT_ORDER),
+    FARE("fare", Comparator.comparing(FlightResponse::fare, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(FlightCursor.FLIGHT_ORDER));
+
+    private final String parameter;
+    private final Comparator<FlightResponse> order;
+
+    FlightSort(String parameter, Comparator<FlightResponse> order) {
+        this.parameter = parameter;
+        this.order = order;
+    }
+
+    public Comparator<FlightResponse> order() {
+        return order;
+    }
+
+    /**
+     * Sort named by the {@code sort} query parameter, {@link #DEPARTURE_TIME} when absent.
+     */
+    public static FlightSort of(String parameter) {
+        if (parameter == null) {
+            return DEPARTURE_TIME;
+        }
+        return Arrays.stream(values())
+                .filter(sort -> sort.parameter.equals(parameter))
+                .findFirst()
+                .orElseThrow(() -> new BusinessException("Invalid sort, expected one of: " + Arrays.stream(values())
+                        .map(sort -> sort.parameter)
+                        .collect(Collectors.joining(", "))));
+    }
+
+}
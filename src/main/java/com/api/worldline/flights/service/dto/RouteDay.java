@@ -0,0 +1,26 @@
+package com.api.worldline.flights.service.dto;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Route and departure day of a flight; {@code day} is null when the departure time is unknown.
+ */
+public record RouteDay(String departureAirport,
+                       String destinationAirport,
+                       LocalDate day) {
+
+    public static RouteDay of(FlightResponse flight) {
+        return of(flight.departureAirport(), flight.destinationAirport(), flight.departureTime());
+    }
+
+    public static RouteDay of(String departureAirport, String destinationAirport, LocalDateTime departureTime) {
+        return new RouteDay(departureAirport, destinationAirport, departureTime == null ? null : departureTime.toLocalDate());
+    }
+
+    public boolean isComplete() {
+        return departureAirport != null && destinationAirport != null && day != null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.api.worldline.flights.service.dto;
+
+import java.time.LocalDate;
+
+/**
+ * {@link FareAggregate} of the flights of one route and departure day.
+ */
+public record RouteDayFare(String departureAirport,
+                           String destinationAirport,
+                           LocalDate day,
+                           Double minFare,
+                           Double fareSum,
+                           Long flightCount) {
+
+    public RouteDay routeDay() {
+        return new RouteDay(departureAirport, destinationAirport, day);
+    }
+
+    public FareAggregate fares() {
+        return new FareAggregate(minFare, fareSum, flightCount);
+    }
+}
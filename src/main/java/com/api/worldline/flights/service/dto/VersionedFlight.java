@@ -0,0 +1,7 @@
+package com.api.worldline.flights.service.dto;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+
+public record VersionedFlight(FlightResponse flight,
+                              Long version) {
+}
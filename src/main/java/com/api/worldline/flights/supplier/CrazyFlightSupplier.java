@@ -0,0 +1,66 @@
+package com.api.worldline.flights.supplier;
+
+import com.api.worldline.flights.client.CachedCrazySupplierClient;
+import com.api.worldline.flights.client.dto.CachedFlights;
+import com.api.worldline.flights.client.dto.FlightCrazySupplierRequest;
+import com.api.worldline.flights.client.dto.FlightCrazySupplierResponse;
+import com.api.worldline.flights.config.FlightMapper;
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class CrazyFlightSupplier implements FlightSupplier {
+
+    public static final String NAME = "CrazySupplier";
+
+    private final CachedCrazySupplierClient crazySupplierClient;
+    private final FlightMapper flightMapper;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public SupplierResult searchFlights(FlightSearchCriteria criteria) {
+        CachedFlights cached = crazySupplierClient.getFlights(toRequest(criteria));
+        List<FlightResponse> responses = toResponses(cached.flights());
+        if (cached.stale()) {
+            return SupplierResult.stale(NAME, responses);
+        }
+        return SupplierResult.ok(NAME, responses, crazySupplierClient.isCaching() ? cached.fetchedAt().toString() : null);
+    }
+
+    @Override
+    public Optional<String> resultVersion(FlightSearchCriteria criteria) {
+        return crazySupplierClient.fetchedAt(toRequest(criteria))
+                .map(Instant::toString);
+    }
+
+    public static FlightCrazySupplierRequest toRequest(FlightSearchCriteria criteria) {
+        return new FlightCrazySupplierRequest(
+                criteria.departureAirport(),
+                criteria.destinationAirport(),
+                criteria.departureTime(),
+                criteria.arrivalTime()
+        );
+    }
+
+    private List<FlightResponse> toResponses(List<FlightCrazySupplierResponse> flights) {
+        if (CollectionUtils.isEmpty(flights)) {
+            return List.of();
+        }
+        return flights.stream()
+                .map(flightMapper::fromCrazySupplierToResponse)
+                .toList();
+    }
+
+}
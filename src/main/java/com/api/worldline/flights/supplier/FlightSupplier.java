@@ -0,0 +1,31 @@
+package com.api.worldline.flights.supplier;
+
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+
+import java.util.Optional;
+
+/**
+ * Extension point for external flight suppliers. Every Spring bean implementing this interface
+ * is queried in parallel by {@link SupplierAggregator} on each flight search.
+ */
+public interface FlightSupplier {
+
+    /**
+     * Unique name of the supplier, used for status reporting and per-supplier timeouts.
+     */
+    String getName();
+
+    /**
+     * Searches the supplier. Implementations may block; timeouts are enforced by the caller.
+     */
+    SupplierResult searchFlights(FlightSearchCriteria criteria);
+
+    /**
+     * Version of the flights a search with these criteria would currently return, or empty when it
+     * cannot be known without calling the supplier. Must be cheap and must not call the supplier.
+     */
+    default Optional<String> resultVersion(FlightSearchCriteria criteria) {
+        return Optional.empty();
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.api.worldline.flights.supplier;
+
+import com.api.worldline.flights.config.FlightSearchProperties;
+import com.api.worldline.flights.service.FlightSearchMetrics;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Scatter-gather over all registered {@link FlightSupplier}s. Each supplier runs on the search
+ * executor with its own deadline, so the slowest supplier can delay a search by at most
+ * {@code flights.search.supplier-timeout}; a supplier that fails or times out contributes an
+ * empty result with the matching {@link SupplierStatus}. A supplier that cannot be started because
+ * the executor is saturated is reported as {@link SupplierStatus#REJECTED}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SupplierAggregator {
+
+    private final List<FlightSupplier> flightSuppliers;
+
+    @Qualifier("flightSearchExecutor")
+    private final Executor flightSearchExecutor;
+    private final FlightSearchProperties flightSearchProperties;
+    private final FlightSearchMetrics flightSearchMetrics;
+
+    public List<SupplierResult> searchFlights(FlightSearchCriteria criteria) {
+        return searchFlightsAsync(criteria).stream()
+                .map(CompletableFuture::join)
+                .toList();
+    }
+
+    /**
+     * Starts all supplier legs without waiting for them. Every returned future completes normally,
+     * at the latest when its supplier timeout expires.
+     */
+    public List<CompletableFuture<SupplierResult>> searchFlightsAsync(FlightSearchCriteria criteria) {
+        return flightSuppliers.stream()
+                .map(supplier -> searchSupplier(supplier, criteria))
+                .toList();
+    }
+
+    /**
+     * Versions of the results every supplier would currently return, keyed by supplier name, or
+     * empty as soon as one supplier cannot tell without being called.
+     */
+    public Optional<String> resultVersion(FlightSearchCriteria criteria) {
+        StringBuilder version = new StringBuilder();
+        for (FlightSupplier supplier : flightSuppliers) {
+            Optional<String> supplierVersion = supplier.resultVersion(criteria);
+            if (supplierVersion.isEmpty()) {
+                return Optional.empty();
+            }
+            SupplierResult.appendVersion(version, supplier.getName(), supplierVersion.get());
+        }
+        return Optional.of(version.toString());
+    }
+
+    private CompletableFuture<SupplierResult> searchSupplier(FlightSupplier supplier, FlightSearchCriteria criteria) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<SupplierResult> leg;
+        try {
+            leg = CompletableFuture
+                    .supplyAsync(() -> supplier.searchFlights(criteria), flightSearchExecutor)
+                    .orTimeout(timeoutOf(supplier).toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            leg = CompletableFuture.failedFuture(e);
+        }
+        return leg
+                .exceptionally(ex -> toFailure(supplier, ex))
+                .thenApply(result -> {
+                    flightSearchMetrics.recordSupplier(result, startNanos);
+                    return result;
+                });
+    }
+
+    private Duration timeoutOf(FlightSupplier supplier) {
+        Duration budget = flightSearchProperties.supplierTimeout();
+        Duration timeout = flightSearchProperties.supplierTimeouts().getOrDefault(supplier.getName(), budget);
+        return timeout.compareTo(budget) < 0 ? timeout : budget;
+    }
+
+    private SupplierResult toFailure(FlightSupplier supplier, Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof TimeoutException) {
+            log.warn("Timeout on calling supplier {}", supplier.getName());
+            return SupplierResult.failed(supplier.getName(), SupplierStatus.TIMEOUT);
+        }
+        if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException
+                || cause instanceof RejectedExecutionException) {
+            log.warn("Call to supplier {} rejected: {}", supplier.getName(), cause.getMessage());
+            return SupplierResult.failed(supplier.getName(), SupplierStatus.REJECTED);
+        }
+        log.error("Error on calling supplier {}", supplier.getName(), cause);
+        return SupplierResult.failed(supplier.getName(), SupplierStatus.ERROR);
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.api.worldline.flights.supplier;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+
+import java.util.List;
+
+/**
+ * Outcome of one supplier leg. {@code version} identifies the flights returned, as
+ * {@link FlightSupplier#resultVersion} would, or is null when the supplier cannot tell.
+ */
+public record SupplierResult(String supplier,
+                             SupplierStatus status,
+                             List<FlightResponse> flights,
+                             String version) {
+
+    public static SupplierResult ok(String supplier, List<FlightResponse> flights) {
+        return ok(supplier, flights, null);
+    }
+
+    public static SupplierResult ok(String supplier, List<FlightResponse> flights, String version) {
+        return new SupplierResult(supplier, SupplierStatus.OK, flights, version);
+    }
+
+    public static SupplierResult stale(String supplier, List<FlightResponse> flights) {
+        return new SupplierResult(supplier, SupplierStatus.STALE, flights, null);
+    }
+
+    public static SupplierResult failed(String supplier, SupplierStatus status) {
+        return new SupplierResult(supplier, status, List.of(), null);
+    }
+
+    /**
+     * Versions of the given results keyed by supplier name, in the format of
+     * {@link SupplierAggregator#resultVersion}, or null as soon as one result has none.
+     */
+    public static String versionOf(List<SupplierResult> results) {
+        StringBuilder version = new StringBuilder();
+        for (SupplierResult result : results) {
+            if (result.version() == null) {
+                return null;
+            }
+            appendVersion(version, result.supplier(), result.version());
+        }
+        return version.toString();
+    }
+
+    static void appendVersion(StringBuilder version, String supplier, String supplierVersion) {
+        version.append(supplier).append('=').append(supplierVersion).append(';');
+    }
+}
@@ -0,0 +1,9 @@
+package com.api.worldline.flights.supplier;
+
+public enum SupplierStatus {
+    OK,
+    STALE,
+    TIMEOUT,
+    REJECTED,
+    ERROR
+}
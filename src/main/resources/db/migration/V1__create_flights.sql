@@ -0,0 +1,18 @@
+CREATE SEQUENCE flights_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE flights (
+    id                  BIGINT           NOT NULL,
+    version             BIGINT           DEFAULT 0 NOT NULL,
+    airline             VARCHAR(255),
+    supplier            VARCHAR(255),
+    fare                DOUBLE PRECISION NOT NULL,
+    departure_airport   VARCHAR(255),
+    destination_airport VARCHAR(255),
+    departure_time      TIMESTAMP(6),
+    arrival_time        TIMESTAMP(6),
+    CONSTRAINT pk_flights PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_flights_route_departure ON flights (departure_airport, destination_airport, departure_time);
+CREATE INDEX idx_flights_departure_id ON flights (departure_time, id);
+CREATE INDEX idx_flights_airline_departure ON flights (airline, departure_time);
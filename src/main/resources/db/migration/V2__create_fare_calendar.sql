@@ -0,0 +1,14 @@
+CREATE TABLE fare_calendar (
+    departure_airport   VARCHAR(255)     NOT NULL,
+    destination_airport VARCHAR(255)     NOT NULL,
+    departure_date      DATE             NOT NULL,
+    source              VARCHAR(255)     NOT NULL,
+    min_fare            DOUBLE PRECISION NOT NULL,
+    fare_sum            DOUBLE PRECISION NOT NULL,
+    flight_count        BIGINT           NOT NULL,
+    fetched_at          TIMESTAMP,
+    CONSTRAINT pk_fare_calendar PRIMARY KEY (departure_airport, destination_airport, departure_date, source)
+);
+
+CREATE INDEX idx_fare_calendar_route_date ON fare_calendar (departure_airport, destination_airport, departure_date);
+CREATE INDEX idx_fare_calendar_fetched_at ON fare_calendar (fetched_at);
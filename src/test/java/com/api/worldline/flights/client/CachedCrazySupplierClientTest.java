@@ -0,0 +1,192 @@
+package com.api.worldline.flights.client;
+
+import com.api.worldline.flights.client.dto.CachedFlights;
+import com.api.worldline.flights.client.dto.FlightCrazySupplierRequest;
+import com.api.worldline.flights.client.dto.FlightCrazySupplierResponse;
+import com.api.worldline.flights.config.ExecutorConfig;
+import com.api.worldline.flights.config.FlightSearchProperties;
+import com.api.worldline.flights.config.SupplierCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CachedCrazySupplierClientTest {
+
+    @Mock
+    private ResilientCrazySupplierClient crazySupplierClient;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ExecutorService executor;
+
+    private CachedCrazySupplierClient cachedClient;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        executor = Executors.newCachedThreadPool();
+        cachedClient = createClient(false, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void getFlightsShouldServeRepeatedRequestsFromCache() {
+        FlightCrazySupplierRequest request = getRequest();
+        when(crazySupplierClient.getFlights(request)).thenReturn(List.of(getResponse()));
+
+        cachedClient.getFlights(request);
+        CachedFlights result = cachedClient.getFlights(request);
+
+        assertEquals(1, result.flights().size());
+        assertFalse(result.stale());
+        verify(crazySupplierClient, times(1)).getFlights(request);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "crazySupplier").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void getFlightsShouldCoalesceConcurrentMisses() throws Exception {
+        FlightCrazySupplierRequest request = getRequest();
+        when(crazySupplierClient.getFlights(request)).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return List.of(getResponse());
+        });
+
+        List<Future<CachedFlights>> calls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            calls.add(executor.submit(() -> cachedClient.getFlights(request)));
+        }
+        for (Future<CachedFlights> call : calls) {
+            assertEquals(1, call.get().flights().size());
+        }
+
+        verify(crazySupplierClient, times(1)).getFlights(request);
+    }
+
+    @Test
+    void getFlightsShouldLoadMoreMissesThanSearchThreadsWithoutBlocking() throws Exception {
+        ExecutorConfig executorConfig = new ExecutorConfig();
+        ThreadPoolTaskExecutor searchExecutor = executorConfig.flightSearchExecutor(new FlightSearchProperties(
+                Duration.ofSeconds(5), Duration.ofSeconds(3), Map.of(), 100, 500, true,
+                new FlightSearchProperties.Executor(2, 4, 10)));
+        SupplierCacheProperties properties = new SupplierCacheProperties(true, Duration.ofMinutes(1), 100, null, false,
+                Duration.ofHours(1), new SupplierCacheProperties.Loader(2, 10));
+        ThreadPoolTaskExecutor loaderExecutor = executorConfig.supplierCacheLoaderExecutor(properties);
+        searchExecutor.initialize();
+        loaderExecutor.initialize();
+        try {
+            cachedClient = new CachedCrazySupplierClient(crazySupplierClient, properties, loaderExecutor, meterRegistry, event -> { });
+            when(crazySupplierClient.getFlights(any())).thenAnswer(invocation -> {
+                Thread.sleep(50);
+                return List.of(getResponse());
+            });
+
+            List<Future<CachedFlights>> calls = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                FlightCrazySupplierRequest request = new FlightCrazySupplierRequest("GRU", "JFK", LocalDateTime.of(2025, 7, 1, 10, 0).plusDays(i), null);
+                calls.add(searchExecutor.submit(() -> cachedClient.getFlights(request)));
+            }
+            for (Future<CachedFlights> call : calls) {
+                assertEquals(1, call.get(5, TimeUnit.SECONDS).flights().size());
+            }
+
+            verify(crazySupplierClient, times(8)).getFlights(any());
+        } finally {
+            searchExecutor.shutdown();
+            loaderExecutor.shutdown();
+        }
+    }
+
+    @Test
+    void getFlightsShouldNotCacheErrors() {
+        FlightCrazySupplierRequest request = getRequest();
+        when(crazySupplierClient.getFlights(any()))
+                .thenThrow(new RuntimeException("Supplier error"))
+                .thenReturn(List.of(getResponse()));
+
+        assertThrows(RuntimeException.class, () -> cachedClient.getFlights(request));
+        assertEquals(1, cachedClient.getFlights(request).flights().size());
+
+        verify(crazySupplierClient, times(2)).getFlights(request);
+    }
+
+    @Test
+    void getFlightsShouldServeStaleResultWhenSupplierFailsInStaleWhileRevalidateMode() throws Exception {
+        cachedClient = createClient(true, Duration.ofMillis(100));
+        FlightCrazySupplierRequest request = getRequest();
+        when(crazySupplierClient.getFlights(request))
+                .thenReturn(List.of(getResponse()))
+                .thenThrow(new RuntimeException("Supplier error"));
+
+        assertFalse(cachedClient.getFlights(request).stale());
+        Thread.sleep(200);
+
+        CachedFlights stale = cachedClient.getFlights(request);
+        assertTrue(stale.stale());
+        assertEquals(1, stale.flights().size());
+
+        Thread.sleep(100);
+        CachedFlights afterFailedRefresh = cachedClient.getFlights(request);
+        assertTrue(afterFailedRefresh.stale());
+        assertEquals(1, afterFailedRefresh.flights().size());
+    }
+
+    @Test
+    void fetchedAtShouldOnlyReportFreshEntriesWithoutLoading() throws Exception {
+        cachedClient = createClient(false, Duration.ofMillis(100));
+        FlightCrazySupplierRequest request = getRequest();
+        when(crazySupplierClient.getFlights(request)).thenReturn(List.of(getResponse()));
+
+        assertTrue(cachedClient.fetchedAt(request).isEmpty());
+        verify(crazySupplierClient, never()).getFlights(any());
+
+        CachedFlights cached = cachedClient.getFlights(request);
+        assertEquals(cached.fetchedAt(), cachedClient.fetchedAt(request).orElseThrow());
+
+        Thread.sleep(200);
+        assertTrue(cachedClient.fetchedAt(request).isEmpty());
+    }
+
+    private CachedCrazySupplierClient createClient(boolean staleWhileRevalidate, Duration ttl) {
+        SupplierCacheProperties properties = new SupplierCacheProperties(true, ttl, 100, null, staleWhileRevalidate, Duration.ofHours(1), new SupplierCacheProperties.Loader(4, 100));
+        return new CachedCrazySupplierClient(crazySupplierClient, properties, executor, meterRegistry, event -> { });
+    }
+
+    private FlightCrazySupplierRequest getRequest() {
+        return new FlightCrazySupplierRequest("GRU", "JFK", LocalDateTime.of(2025, 7, 1, 10, 0), null);
+    }
+
+    private FlightCrazySupplierResponse getResponse() {
+        return new FlightCrazySupplierResponse(
+                "LATAM",
+                800.0,
+                70.0,
+                "GRU",
+                "JFK",
+                LocalDateTime.of(2025, 7, 1, 10, 0),
+                LocalDateTime.of(2025, 7, 1, 18, 0)
+        );
+    }
+}
@@ -0,0 +1,72 @@
+package com.api.worldline.flights.client;
+
+import com.api.worldline.flights.client.dto.FlightCrazySupplierRequest;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ResilientCrazySupplierClientTest {
+
+    @Mock
+    private CrazySupplierClient crazySupplierClient;
+
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private ResilientCrazySupplierClient resilientClient;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .recordException(new SupplierFailurePredicate())
+                .build();
+        circuitBreakerRegistry = CircuitBreakerRegistry.of(config);
+        resilientClient = new ResilientCrazySupplierClient(crazySupplierClient, circuitBreakerRegistry, BulkheadRegistry.ofDefaults());
+    }
+
+    @Test
+    void getFlightsShouldShortCircuitWhenSupplierKeepsFailing() {
+        when(crazySupplierClient.getFlights(any())).thenThrow(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ResponseStatusException.class, () -> resilientClient.getFlights(getRequest()));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("crazySupplier").getState());
+        assertThrows(CallNotPermittedException.class, () -> resilientClient.getFlights(getRequest()));
+        verify(crazySupplierClient, times(4)).getFlights(any());
+    }
+
+    @Test
+    void getFlightsShouldNotOpenCircuitOnClientErrors() {
+        when(crazySupplierClient.getFlights(any())).thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST));
+
+        for (int i = 0; i < 6; i++) {
+            assertThrows(ResponseStatusException.class, () -> resilientClient.getFlights(getRequest()));
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakerRegistry.circuitBreaker("crazySupplier").getState());
+    }
+
+    private FlightCrazySupplierRequest getRequest() {
+        return new FlightCrazySupplierRequest("GRU", "JFK", null, null);
+    }
+}
@@ -0,0 +1,87 @@
+package com.api.worldline.flights.config;
+
+import com.api.worldline.flights.client.CrazySupplierClient;
+import com.api.worldline.flights.client.dto.FlightCrazySupplierRequest;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.LocalDateTime;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+
+/**
+ * The Feign clients must send their calls through the pooled Apache HttpClient 5 transport, and the
+ * pool must be published as {@code httpcomponents.httpclient.pool.*} meters.
+ */
+@SpringBootTest
+public class FeignConfigTest {
+
+    static WireMockServer wireMockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+
+    @Autowired
+    private Client feignClient;
+
+    @Autowired
+    private HttpClientConnectionManager connectionManager;
+
+    @Autowired
+    private CrazySupplierClient crazySupplierClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void startWireMock() {
+        wireMockServer.start();
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        wireMockServer.stop();
+    }
+
+    @DynamicPropertySource
+    static void registerDynamicProperties(DynamicPropertyRegistry registry) {
+        registry.add("feign.crazy-suppliers-url", () -> "http://localhost:" + wireMockServer.port());
+    }
+
+    @Test
+    public void testFeignClientUsesPooledHttpClient5() {
+        Assertions.assertInstanceOf(ApacheHttp5Client.class, feignClient);
+        PoolingHttpClientConnectionManager pool = Assertions.assertInstanceOf(PoolingHttpClientConnectionManager.class, connectionManager);
+        Assertions.assertEquals(200, pool.getMaxTotal());
+        Assertions.assertEquals(50, pool.getDefaultMaxPerRoute());
+
+        wireMockServer.stubFor(post("/flights").willReturn(okJson("[]")));
+        crazySupplierClient.getFlights(new FlightCrazySupplierRequest("GRU", "JFK", LocalDateTime.of(2025, 7, 1, 10, 0), null));
+
+        Assertions.assertTrue(pool.getTotalStats().getAvailable() >= 1, "the connection should be returned to the pool for reuse");
+    }
+
+    @Test
+    public void testConnectionPoolMetersAreRegistered() {
+        Assertions.assertEquals(200, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "feign")
+                .gauge()
+                .value());
+        Assertions.assertNotNull(meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "feign")
+                .tag("state", "available")
+                .gauge());
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.api.worldline.flights.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Starts the application with the virtual-threads profile: search legs and supplier cache loads
+ * must run on virtual threads, loads outside the search concurrency limit, and a virtual thread
+ * blocking inside a monitor must be reported.
+ */
+@SpringBootTest
+@ActiveProfiles("virtual-threads")
+@DirtiesContext
+public class VirtualThreadsProfileTest {
+
+    @Autowired
+    @Qualifier("flightSearchExecutor")
+    private Executor flightSearchExecutor;
+
+    @Autowired
+    @Qualifier("supplierCacheLoaderExecutor")
+    private Executor supplierCacheLoaderExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testSearchLegsRunOnVirtualThreads() {
+        boolean virtual = CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), flightSearchExecutor).join();
+
+        Assertions.assertTrue(virtual);
+    }
+
+    @Test
+    public void testSupplierCacheLoadsRunOnVirtualThreadsOutsideTheSearchLimit() {
+        boolean virtual = CompletableFuture.supplyAsync(() -> Thread.currentThread().isVirtual(), supplierCacheLoaderExecutor).join();
+
+        Assertions.assertTrue(virtual);
+        Assertions.assertNotSame(flightSearchExecutor, supplierCacheLoaderExecutor);
+        Assertions.assertFalse(((SimpleAsyncTaskExecutor) supplierCacheLoaderExecutor).isThrottleActive());
+    }
+
+    @Test
+    public void testPinnedVirtualThreadsAreCounted() throws InterruptedException {
+        Object monitor = new Object();
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                sleep(100);
+            }
+        }).join();
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (pinnedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        Assertions.assertTrue(pinnedCount() > 0);
+    }
+
+    private double pinnedCount() {
+        return meterRegistry.find("flights.virtual-threads.pinned").counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
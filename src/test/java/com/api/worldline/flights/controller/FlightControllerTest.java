@@ -1,22 +1,33 @@
 package com.api.worldline.flights.controller;
 
+import com.api.worldline.flights.client.CachedCrazySupplierClient;
 import com.api.worldline.flights.controller.dto.ErrorResponse;
+import com.api.worldline.flights.controller.dto.FareCalendarDay;
+import com.api.worldline.flights.controller.dto.FlightBatchItemStatus;
+import com.api.worldline.flights.controller.dto.FlightBatchResponse;
+import com.api.worldline.flights.controller.dto.FlightBatchUpdateRequest;
+import com.api.worldline.flights.controller.dto.FlightImportReport;
 import com.api.worldline.flights.controller.dto.FlightRequest;
 import com.api.worldline.flights.controller.dto.FlightResponse;
 import com.api.worldline.flights.model.Flight;
+import com.api.worldline.flights.repository.FareCalendarRepository;
 import com.api.worldline.flights.repository.FlightRepository;
+import com.api.worldline.flights.service.FareCalendarService;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
 import io.restassured.RestAssured;
 import io.restassured.common.mapper.TypeRef;
+import io.restassured.response.Response;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -25,6 +36,7 @@ import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
 public class FlightControllerTest {
 
     @LocalServerPort
@@ -33,6 +45,15 @@ public class FlightControllerTest {
     @Autowired
     private FlightRepository flightRepository;
 
+    @Autowired
+    private FareCalendarRepository fareCalendarRepository;
+
+    @Autowired
+    private FareCalendarService fareCalendarService;
+
+    @Autowired
+    private CachedCrazySupplierClient cachedCrazySupplierClient;
+
     static WireMockServer wireMockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
 
     @BeforeAll
@@ -53,6 +74,7 @@ public class FlightControllerTest {
         RestAssured.baseURI = "http://localhost:" + port + "/api";
 
         flightRepository.deleteAll();
+        cachedCrazySupplierClient.invalidateAll();
     }
 
     @DynamicPropertySource
@@ -169,6 +191,7 @@ public class FlightControllerTest {
                 .get("/flights")
                 .then()
                 .statusCode(200)
+                .header("X-Supplier-Status", "CrazySupplier=ERROR")
                 .extract()
                 .as(new TypeRef<>() {
                 });
@@ -177,6 +200,260 @@ public class FlightControllerTest {
 
     }
 
+    @Test
+    public void testSearchMetricsExposedToPrometheus() {
+        wireMockServer.stubFor(WireMock.post("/flights")
+                .willReturn(serviceUnavailable()));
+
+        given()
+                .when()
+                .get("/flights")
+                .then()
+                .statusCode(200);
+
+        String metrics = given()
+                .when()
+                .get("http://localhost:" + port + "/actuator/prometheus")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString();
+
+        Assertions.assertTrue(metrics.contains("flights_search_stage_seconds_bucket"));
+        Assertions.assertTrue(metrics.contains("flights_search_supplier_seconds_count{status=\"ERROR\",supplier=\"CrazySupplier\"}"));
+        Assertions.assertTrue(metrics.contains("flights_supplier_errors_total{"));
+        Assertions.assertTrue(metrics.contains("series=\"SERVER_ERROR\",status=\"503\""));
+    }
+
+    @Test
+    public void testGetFlightsPaginated() {
+        for (int i = 0; i < 3; i++) {
+            Flight flight = createFlight();
+            flight.setDepartureTime(flight.getDepartureTime().plusHours(i));
+            flightRepository.save(flight);
+        }
+
+        wireMockServer.stubFor(WireMock.post("/flights")
+                .willReturn(ok()
+                        .withHeader("content-type", "application/json")
+                        .withBody("[]")));
+
+        Response firstPage = given()
+                .contentType("application/json")
+                .when()
+                .param("pageSize", 2)
+                .get("/flights")
+                .then()
+                .statusCode(200)
+                .extract()
+                .response();
+
+        List<FlightResponse> firstFlights = firstPage.as(new TypeRef<>() {
+        });
+        Assertions.assertEquals(2, firstFlights.size());
+        Assertions.assertTrue(firstFlights.get(0).departureTime().isBefore(firstFlights.get(1).departureTime()));
+
+        String nextPageToken = firstPage.header("X-Next-Page-Token");
+        Assertions.assertNotNull(nextPageToken);
+
+        Response secondPage = given()
+                .contentType("application/json")
+                .when()
+                .param("pageSize", 2)
+                .param("pageToken", nextPageToken)
+                .get("/flights")
+                .then()
+                .statusCode(200)
+                .extract()
+                .response();
+
+        List<FlightResponse> secondFlights = secondPage.as(new TypeRef<>() {
+        });
+        Assertions.assertEquals(1, secondFlights.size());
+        Assertions.assertTrue(firstFlights.get(1).departureTime().isBefore(secondFlights.get(0).departureTime()));
+        Assertions.assertNull(secondPage.header("X-Next-Page-Token"));
+    }
+
+    @Test
+    public void testGetFlightsNotModified() {
+        wireMockServer.stubFor(WireMock.post("/flights")
+                .willReturn(ok()
+                        .withHeader("content-type", "application/json")
+                        .withBody("[]")));
+
+        String etag = given()
+                .when()
+                .get("/flights")
+                .then()
+                .statusCode(200)
+                .header("Cache-Control", "no-cache")
+                .extract()
+                .header("ETag");
+        Assertions.assertNotNull(etag);
+
+        given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/flights")
+                .then()
+                .statusCode(304)
+                .header("ETag", etag);
+
+        given()
+                .contentType("application/json")
+                .body(new FlightRequest("Delta", "Worldline", 200.1, "AMS", "JFK", LocalDateTime.now(), LocalDateTime.now()))
+                .when()
+                .post("/flights")
+                .then()
+                .statusCode(201);
+
+        String newEtag = given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/flights")
+                .then()
+                .statusCode(200)
+                .extract()
+                .header("ETag");
+        Assertions.assertNotEquals(etag, newEtag);
+    }
+
+    @Test
+    public void testGetFlightsSortedByFareWithLimit() {
+        saveFlightsWithFares();
+        stubSupplierFlight();
+
+        Response page = given()
+                .when()
+                .param("sort", "fare")
+                .param("limit", 2)
+                .get("/flights")
+                .then()
+                .statusCode(200)
+                .extract()
+                .response();
+
+        List<FlightResponse> response = page.as(new TypeRef<>() {
+        });
+        Assertions.assertNull(page.header("X-Next-Page-Token"));
+
+        Assertions.assertEquals(2, response.size());
+        Assertions.assertEquals(150.0, response.get(0).fare());
+        Assertions.assertTrue(response.get(0).fare() <= response.get(1).fare());
+        Assertions.assertTrue(response.get(1).fare() <= 250.5);
+
+        given()
+                .when()
+                .param("sort", "fare")
+                .param("pageToken", "abc")
+                .get("/flights")
+                .then()
+                .statusCode(400);
+
+        given()
+                .when()
+                .param("sort", "price")
+                .get("/flights")
+                .then()
+                .statusCode(400)
+                .body("messages[0]", equalTo("Invalid sort, expected one of: departureTime, fare"));
+    }
+
+    @Test
+    public void testGetFareCalendarOfMonth() {
+        fareCalendarRepository.deleteAll();
+        saveFlightsWithFares();
+        fareCalendarService.rebuild();
+
+        List<FareCalendarDay> calendar = getFareCalendar("FRA", "JFK", "2025-07");
+
+        FareCalendarDay firstDay = calendarDay(calendar, LocalDate.of(2025, 7, 1));
+        Assertions.assertEquals(150.0, firstDay.minFare());
+        Assertions.assertEquals(200.25, firstDay.averageFare());
+        Assertions.assertEquals(2L, firstDay.flightCount());
+        Assertions.assertEquals(1L, calendarDay(calendar, LocalDate.of(2025, 7, 2)).flightCount());
+
+        given()
+                .contentType("application/json")
+                .body(new FlightRequest("Delta", "Worldline", 100.0, "FRA", "JFK", LocalDateTime.of(2025, 7, 2, 18, 0), LocalDateTime.of(2025, 7, 3, 2, 0)))
+                .when()
+                .post("/flights")
+                .then()
+                .statusCode(201);
+        fareCalendarService.refresh();
+
+        FareCalendarDay secondDay = calendarDay(getFareCalendar("FRA", "JFK", "2025-07"), LocalDate.of(2025, 7, 2));
+        Assertions.assertEquals(100.0, secondDay.minFare());
+        Assertions.assertEquals(250.0, secondDay.averageFare());
+        Assertions.assertEquals(2L, secondDay.flightCount());
+        Assertions.assertTrue(getFareCalendar("FRA", "JFK", "2025-08").isEmpty());
+    }
+
+    @Test
+    public void testGetCheapestFlightPerRouteAndDay() {
+        saveFlightsWithFares();
+        stubSupplierFlight();
+
+        List<FlightResponse> response = given()
+                .when()
+                .get("/flights/cheapest")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(new TypeRef<>() {
+                });
+
+        Assertions.assertEquals(3, response.size());
+        Assertions.assertEquals(150.0, response.get(0).fare());
+        Assertions.assertEquals(LocalDateTime.of(2025, 7, 1, 12, 0), response.get(0).departureTime());
+        Assertions.assertEquals(400.0, response.get(1).fare());
+        Assertions.assertEquals(LocalDateTime.of(2025, 7, 10, 14, 30), response.get(2).departureTime());
+    }
+
+    @Test
+    public void testGetFlightsInvalidPageToken() {
+        given()
+                .contentType("application/json")
+                .when()
+                .param("pageToken", "not-a-token")
+                .get("/flights")
+                .then()
+                .statusCode(400)
+                .body("messages[0]", equalTo("Invalid page token"));
+    }
+
+    @Test
+    public void testStreamFlightsFromDBAndSupplier() {
+        flightRepository.save(createFlight());
+
+        wireMockServer.stubFor(WireMock.post("/flights")
+                .willReturn(ok()
+                        .withHeader("content-type", "application/json")
+                        .withBody("[{\n" +
+                                "  \"carrier\": \"Lufthansa\",\n" +
+                                "  \"basePrice\": 200.0,\n" +
+                                "  \"tax\": 50.0,\n" +
+                                "  \"departureAirportName\": \"FRA\",\n" +
+                                "  \"arrivalAirportName\": \"JFK\",\n" +
+                                "  \"outboundDateTime\": \"2025-07-10T14:30:00\",\n" +
+                                "  \"inboundDateTime\": \"2025-07-20T09:45:00\"\n" +
+                                "}]")));
+
+        String body = given()
+                .when()
+                .get("/flights/stream")
+                .then()
+                .statusCode(200)
+                .contentType("application/x-ndjson")
+                .extract()
+                .asString();
+
+        List<String> lines = body.lines().toList();
+        Assertions.assertEquals(2, lines.size());
+        Assertions.assertTrue(lines.get(0).contains("\"supplier\":\"WorldLine\""));
+        Assertions.assertTrue(lines.get(1).contains("\"supplier\":\"CrazySupplier\""));
+    }
+
     @Test
     public void testSaveFlight() {
         FlightRequest flightRequest = new FlightRequest(
@@ -322,6 +599,48 @@ public class FlightControllerTest {
         Assertions.assertEquals(flight.getArrivalTime(), flightUpdated.getArrivalTime());
     }
 
+    @Test
+    public void testUpdateFlightWithIfMatch() {
+        Flight savedFlight = flightRepository.save(createFlight());
+        FlightRequest flightRequest = new FlightRequest("Delta", "Worldline", 200.1, "AMS", "JFK", LocalDateTime.now(), LocalDateTime.now());
+
+        String etag = given()
+                .when()
+                .get("/flights/" + savedFlight.getId())
+                .then()
+                .statusCode(200)
+                .body("airline", equalTo(savedFlight.getAirline()))
+                .extract()
+                .header("ETag");
+        Assertions.assertEquals("\"0\"", etag);
+
+        given()
+                .contentType("application/json")
+                .header("If-Match", etag)
+                .body(flightRequest)
+                .param("id", savedFlight.getId())
+                .when()
+                .put("/flights")
+                .then()
+                .statusCode(200)
+                .header("ETag", "\"1\"");
+
+        given()
+                .contentType("application/json")
+                .header("If-Match", etag)
+                .body(flightRequest)
+                .param("id", savedFlight.getId())
+                .when()
+                .put("/flights")
+                .then()
+                .statusCode(412)
+                .body("messages[0]", equalTo("Flight was modified by another request"));
+
+        Flight flightUpdated = flightRepository.findById(savedFlight.getId()).orElseThrow();
+        Assertions.assertEquals(flightRequest.airline(), flightUpdated.getAirline());
+        Assertions.assertEquals(1L, flightUpdated.getVersion());
+    }
+
     @Test
     public void testDeleteFlight() {
         Flight flight = createFlight();
@@ -342,6 +661,170 @@ public class FlightControllerTest {
         Assertions.assertEquals(0, allAfter.size());
     }
 
+    @Test
+    public void testSaveFlightsBatch() {
+        List<FlightRequest> flightRequests = List.of(
+                new FlightRequest("Delta", "Worldline", 200.1, "AMS", "JFK", LocalDateTime.now(), LocalDateTime.now()),
+                new FlightRequest("Delta", "Worldline", 200.1, "AMSS", "JFK", LocalDateTime.now(), LocalDateTime.now()),
+                new FlightRequest("KLM", "Worldline", 300.2, "AMS", "GRU", LocalDateTime.now(), LocalDateTime.now())
+        );
+
+        FlightBatchResponse response = given()
+                .contentType("application/json")
+                .body(flightRequests)
+                .when()
+                .post("/flights/batch")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(FlightBatchResponse.class);
+
+        Assertions.assertEquals(2, response.succeeded());
+        Assertions.assertEquals(1, response.failed());
+        Assertions.assertEquals(FlightBatchItemStatus.CREATED, response.results().get(0).status());
+        Assertions.assertEquals(FlightBatchItemStatus.INVALID, response.results().get(1).status());
+        Assertions.assertEquals(List.of("Departure airport code must be exactly 3 characters"), response.results().get(1).messages());
+        Assertions.assertEquals(FlightBatchItemStatus.CREATED, response.results().get(2).status());
+
+        List<Flight> allAfter = flightRepository.findAll();
+        Assertions.assertEquals(2, allAfter.size());
+        Assertions.assertTrue(allAfter.stream().anyMatch(flight -> flight.getId().equals(response.results().get(2).id())));
+    }
+
+    @Test
+    public void testUpdateFlightsBatch() {
+        Flight savedFlight = flightRepository.save(createFlight());
+        FlightRequest flightRequest = new FlightRequest("Delta", "Worldline", 200.1, "AMS", "JFK", LocalDateTime.now(), LocalDateTime.now());
+
+        FlightBatchResponse response = given()
+                .contentType("application/json")
+                .body(List.of(
+                        new FlightBatchUpdateRequest(savedFlight.getId(), flightRequest),
+                        new FlightBatchUpdateRequest(savedFlight.getId() + 1000, flightRequest)))
+                .when()
+                .put("/flights/batch")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(FlightBatchResponse.class);
+
+        Assertions.assertEquals(1, response.succeeded());
+        Assertions.assertEquals(FlightBatchItemStatus.UPDATED, response.results().get(0).status());
+        Assertions.assertEquals(FlightBatchItemStatus.NOT_FOUND, response.results().get(1).status());
+        Assertions.assertEquals(List.of("Flight doenst exist"), response.results().get(1).messages());
+
+        Flight flightUpdated = flightRepository.findById(savedFlight.getId()).orElseThrow();
+        Assertions.assertEquals(flightRequest.airline(), flightUpdated.getAirline());
+        Assertions.assertEquals(flightRequest.departureAirport(), flightUpdated.getDepartureAirport());
+    }
+
+    @Test
+    public void testDeleteFlightsBatch() {
+        Flight first = flightRepository.save(createFlight());
+        Flight second = flightRepository.save(createFlight());
+
+        FlightBatchResponse response = given()
+                .contentType("application/json")
+                .body(List.of(first.getId(), second.getId() + 1000, second.getId()))
+                .when()
+                .delete("/flights/batch")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(FlightBatchResponse.class);
+
+        Assertions.assertEquals(2, response.succeeded());
+        Assertions.assertEquals(FlightBatchItemStatus.NOT_FOUND, response.results().get(1).status());
+        Assertions.assertEquals(0, flightRepository.findAll().size());
+    }
+
+    @Test
+    public void testImportFlightsCsv() {
+        String csv = """
+                airline,supplier,fare,departureAirport,destinationAirport,departureTime,arrivalTime
+                Delta,Worldline,200.1,AMS,JFK,2025-07-01T10:00:00,2025-07-01T18:00:00
+                Delta,Worldline,200.1,AMSS,JFK,2025-07-01T10:00:00,2025-07-01T18:00:00
+                KLM,Worldline,300.2,AMS,GRU,2025-07-02T10:00:00,2025-07-02T22:00:00
+                """;
+
+        FlightImportReport report = given()
+                .contentType("text/csv")
+                .body(csv)
+                .when()
+                .post("/flights/import")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(FlightImportReport.class);
+
+        Assertions.assertEquals(2, report.imported());
+        Assertions.assertEquals(1, report.rejected());
+        Assertions.assertEquals(3, report.rejects().getFirst().line());
+        Assertions.assertEquals(2, flightRepository.findAll().size());
+    }
+
+    @Test
+    public void testImportFlightsUnsupportedContentType() {
+        given()
+                .contentType("application/xml")
+                .body("<flights/>")
+                .when()
+                .post("/flights/import")
+                .then()
+                .statusCode(415);
+    }
+
+    private List<FareCalendarDay> getFareCalendar(String departureAirport, String destinationAirport, String month) {
+        return given()
+                .param("departureAirport", departureAirport)
+                .param("destinationAirport", destinationAirport)
+                .param("month", month)
+                .when()
+                .get("/flights/calendar")
+                .then()
+                .statusCode(200)
+                .extract()
+                .as(new TypeRef<>() {
+                });
+    }
+
+    private static FareCalendarDay calendarDay(List<FareCalendarDay> calendar, LocalDate day) {
+        return calendar.stream()
+                .filter(calendarDay -> calendarDay.day().equals(day))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void saveFlightsWithFares() {
+        Flight first = createFlight();
+        flightRepository.save(first);
+
+        Flight cheapest = createFlight();
+        cheapest.setFare(150.0);
+        cheapest.setDepartureTime(LocalDateTime.of(2025, 7, 1, 12, 0));
+        flightRepository.save(cheapest);
+
+        Flight nextDay = createFlight();
+        nextDay.setFare(400.0);
+        nextDay.setDepartureTime(LocalDateTime.of(2025, 7, 2, 10, 0));
+        flightRepository.save(nextDay);
+    }
+
+    private void stubSupplierFlight() {
+        wireMockServer.stubFor(WireMock.post("/flights")
+                .willReturn(ok()
+                        .withHeader("content-type", "application/json")
+                        .withBody("[{\n" +
+                                "  \"carrier\": \"Lufthansa\",\n" +
+                                "  \"basePrice\": 200.0,\n" +
+                                "  \"tax\": 50.0,\n" +
+                                "  \"departureAirportName\": \"FRA\",\n" +
+                                "  \"arrivalAirportName\": \"JFK\",\n" +
+                                "  \"outboundDateTime\": \"2025-07-10T14:30:00\",\n" +
+                                "  \"inboundDateTime\": \"2025-07-20T09:45:00\"\n" +
+                                "}]")));
+    }
+
     public Flight createFlight() {
         Flight flightInfo = new Flight();
         flightInfo.setAirline("Lufthansa");
@@ -0,0 +1,116 @@
+package com.api.worldline.flights.controller;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightJsonWriterTest {
+
+    /** Configured like Spring Boot's mapper, which writes dates as ISO strings. */
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final FlightJsonWriter writer = new FlightJsonWriter(objectMapper, 16);
+
+    @Test
+    void writeShouldMatchJacksonForTypicalFlights() throws IOException {
+        List<FlightResponse> flights = new ArrayList<>();
+        Random random = new Random(42);
+        String[] airports = {"GRU", "JFK", "FRA", "AMS", "LHR"};
+        String[] airlines = {"Lufthansa", "Delta", "LATAM", "KLM"};
+        for (int i = 0; i < 5000; i++) {
+            LocalDateTime departure = LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(random.nextInt(500_000));
+            flights.add(new FlightResponse(
+                    (long) i,
+                    airlines[random.nextInt(airlines.length)],
+                    i % 2 == 0 ? "Internal" : "CrazySupplier",
+                    random.nextInt(100_000) / 100.0,
+                    airports[random.nextInt(airports.length)],
+                    airports[random.nextInt(airports.length)],
+                    departure,
+                    departure.plusSeconds(random.nextInt(50_000))));
+        }
+
+        assertSameAsJackson(flights);
+    }
+
+    @Test
+    void writeShouldMatchJacksonForEdgeValues() throws IOException {
+        LocalDateTime time = LocalDateTime.of(2025, 7, 1, 10, 0);
+        List<FlightResponse> flights = new ArrayList<>();
+        for (double fare : new double[]{0.0, -0.0, 0.01, 0.05, 0.1 + 0.2, 1e-4, 12.5, 100, 299.99, -42.07,
+                9_999_999.99, 1e7, 1.5e300, Double.NaN, Double.POSITIVE_INFINITY, Double.MIN_VALUE}) {
+            flights.add(new FlightResponse(1L, "Delta", "Internal", fare, "GRU", "JFK", time, time));
+        }
+        for (LocalDateTime dateTime : new LocalDateTime[]{
+                time.withNano(500_000_000), time.withNano(1), time.withNano(123_456_789), time.withNano(120_000),
+                LocalDateTime.of(999, 1, 2, 3, 4, 5), LocalDateTime.of(12345, 6, 7, 8, 9, 10), LocalDateTime.of(-1, 1, 1, 0, 0),
+                LocalDateTime.MIN, LocalDateTime.MAX}) {
+            flights.add(new FlightResponse(2L, "Delta", "Internal", 10.0, "GRU", "JFK", dateTime, dateTime));
+        }
+        for (String text : new String[]{"", "Quote \"air\"", "back\\slash", "tab\tnew\nline\u0001", "Aéreo", "航空", "emoji 🚀", "</script>", "\u007f"}) {
+            flights.add(new FlightResponse(3L, text, text, 1.0, text, text, time, time));
+        }
+        flights.add(new FlightResponse(null, null, null, null, null, null, null, null));
+        flights.add(new FlightResponse(Long.MIN_VALUE, "Delta", "Internal", 1.0, "GRU", "JFK", time, time));
+        flights.add(new FlightResponse(Long.MAX_VALUE, "Delta", "Internal", 1.0, "GRU", "JFK", time, time));
+        flights.add(new FlightResponse(-7L, "Delta", "Internal", 1.0, "GRU", "JFK", time, time));
+        flights.add(null);
+
+        assertSameAsJackson(flights);
+    }
+
+    @Test
+    void writeShouldMatchJacksonForEmptyList() throws IOException {
+        assertSameAsJackson(List.of());
+    }
+
+    @Test
+    void writeShouldMatchJacksonForStringsLongerThanTheBuffer() throws IOException {
+        String airline = "A".repeat(FlightJsonWriter.BUFFER_SIZE * 2);
+        LocalDateTime time = LocalDateTime.of(2025, 7, 1, 10, 0);
+
+        assertSameAsJackson(List.of(
+                new FlightResponse(1L, airline, "Internal", 1.0, "GRU", "JFK", time, time),
+                new FlightResponse(2L, airline + "\"", "Internal", 1.0, "GRU", "JFK", time, time)));
+    }
+
+    @Test
+    void writeShouldMatchJacksonWritingDatesAsTimestamps() throws IOException {
+        ObjectMapper timestampMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        LocalDateTime time = LocalDateTime.of(2025, 7, 1, 10, 0);
+
+        assertSameAsJackson(timestampMapper, new FlightJsonWriter(timestampMapper, 16), List.of(
+                new FlightResponse(1L, "Delta", "Internal", 1.0, "GRU", "JFK", time, time.withNano(123_000_000)),
+                new FlightResponse(2L, "Delta", "Internal", 1.0, "GRU", "JFK", null, time)));
+    }
+
+    private void assertSameAsJackson(List<FlightResponse> flights) throws IOException {
+        assertSameAsJackson(objectMapper, writer, flights);
+    }
+
+    private static void assertSameAsJackson(ObjectMapper objectMapper, FlightJsonWriter writer, List<FlightResponse> flights) throws IOException {
+        byte[] expected = objectMapper.writeValueAsBytes(flights);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writer.write(flights, output);
+
+        byte[] actual = output.toByteArray();
+        assertTrue(Arrays.equals(expected, actual),
+                () -> "expected " + new String(expected, StandardCharsets.UTF_8) + "\nbut was  " + new String(actual, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,188 @@
+package com.api.worldline.flights.controller;
+
+import com.api.worldline.flights.client.ReactiveCrazySupplierClient;
+import com.api.worldline.flights.controller.dto.ErrorResponse;
+import com.api.worldline.flights.controller.dto.FlightRequest;
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.model.Flight;
+import com.api.worldline.flights.repository.FlightRepository;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+
+@ActiveProfiles("reactive")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+public class ReactiveFlightControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private ReactiveCrazySupplierClient reactiveCrazySupplierClient;
+
+    static WireMockServer wireMockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+
+    @BeforeAll
+    static void startWireMock() {
+        wireMockServer.start();
+    }
+
+    @AfterAll
+    static void stopWireMock() {
+        if (wireMockServer != null) {
+            wireMockServer.stop();
+        }
+    }
+
+    @BeforeEach
+    public void setup() {
+        wireMockServer.resetAll();
+        flightRepository.deleteAll();
+        reactiveCrazySupplierClient.invalidateAll();
+    }
+
+    @DynamicPropertySource
+    static void registerDynamicProperties(DynamicPropertyRegistry registry) {
+        registry.add("feign.crazy-suppliers-url", () -> "http://localhost:" + wireMockServer.port());
+    }
+
+    @Test
+    public void testGetFlightsFromDBAndSupplier() {
+        flightRepository.save(createFlight());
+        stubSupplierFlight();
+
+        List<FlightResponse> response = webTestClient.get()
+                .uri("/api/flights?airline=Lufthansa")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(FlightResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        Assertions.assertEquals(2, response.size());
+    }
+
+    @Test
+    public void testStreamFlightsAsNdjson() {
+        flightRepository.save(createFlight());
+        stubSupplierFlight();
+
+        List<FlightResponse> flights = webTestClient.get()
+                .uri("/api/flights")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(FlightResponse.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        Assertions.assertEquals(2, flights.size());
+    }
+
+    @Test
+    public void testGetFlightsWhenSupplierFails() {
+        flightRepository.save(createFlight());
+        wireMockServer.stubFor(WireMock.post("/flights").willReturn(serverError()));
+
+        List<FlightResponse> response = webTestClient.get()
+                .uri("/api/flights")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(FlightResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        Assertions.assertEquals(1, response.size());
+        Assertions.assertEquals("WorldLine", response.get(0).supplier());
+    }
+
+    @Test
+    public void testGetFlightsWithInvalidAirport() {
+        ErrorResponse response = webTestClient.get()
+                .uri("/api/flights?departureAirport=FRAN")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        Assertions.assertEquals(List.of("Departure airport code must be exactly 3 characters"), response.messages());
+    }
+
+    @Test
+    public void testUpdateFlightWithStaleETag() {
+        Flight savedFlight = flightRepository.save(createFlight());
+        String etag = webTestClient.get()
+                .uri("/api/flights/{id}", savedFlight.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(FlightResponse.class)
+                .getResponseHeaders()
+                .getETag();
+        FlightRequest update = new FlightRequest("Lufthansa", "WorldLine", 199.0, "FRA", "JFK",
+                LocalDateTime.of(2025, 7, 1, 10, 0), LocalDateTime.of(2025, 7, 1, 18, 0));
+
+        webTestClient.put()
+                .uri("/api/flights?id={id}", savedFlight.getId())
+                .header(HttpHeaders.IF_MATCH, etag)
+                .bodyValue(update)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG);
+
+        webTestClient.put()
+                .uri("/api/flights?id={id}", savedFlight.getId())
+                .header(HttpHeaders.IF_MATCH, etag)
+                .bodyValue(update)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    private void stubSupplierFlight() {
+        wireMockServer.stubFor(WireMock.post("/flights")
+                .willReturn(ok()
+                        .withHeader("content-type", "application/json")
+                        .withBody("[{\n" +
+                                "  \"carrier\": \"Lufthansa\",\n" +
+                                "  \"basePrice\": 200.0,\n" +
+                                "  \"tax\": 50.0,\n" +
+                                "  \"departureAirportName\": \"FRA\",\n" +
+                                "  \"arrivalAirportName\": \"JFK\",\n" +
+                                "  \"outboundDateTime\": \"2025-07-10T14:30:00\",\n" +
+                                "  \"inboundDateTime\": \"2025-07-20T09:45:00\"\n" +
+                                "}]")));
+    }
+
+    public Flight createFlight() {
+        Flight flightInfo = new Flight();
+        flightInfo.setAirline("Lufthansa");
+        flightInfo.setSupplier("WorldLine");
+        flightInfo.setFare(250.50);
+        flightInfo.setDepartureAirport("FRA");
+        flightInfo.setDestinationAirport("JFK");
+        flightInfo.setDepartureTime(LocalDateTime.of(2025, 7, 1, 10, 0));
+        flightInfo.setArrivalTime(LocalDateTime.of(2025, 7, 1, 18, 0));
+        return flightInfo;
+    }
+
+}
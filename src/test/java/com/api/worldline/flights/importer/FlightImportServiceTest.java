@@ -0,0 +1,139 @@
+package com.api.worldline.flights.importer;
+
+import com.api.worldline.flights.config.FlightBatchProperties;
+import com.api.worldline.flights.config.FlightImportProperties;
+import com.api.worldline.flights.controller.dto.FlightBatchItemResult;
+import com.api.worldline.flights.controller.dto.FlightBatchItemStatus;
+import com.api.worldline.flights.controller.dto.FlightBatchResponse;
+import com.api.worldline.flights.controller.dto.FlightImportReject;
+import com.api.worldline.flights.controller.dto.FlightImportReport;
+import com.api.worldline.flights.controller.dto.FlightRequest;
+import com.api.worldline.flights.exception.BusinessException;
+import com.api.worldline.flights.service.FlightBatchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class FlightImportServiceTest {
+
+    @Mock
+    private FlightBatchService flightBatchService;
+
+    private final List<FlightRequest> saved = new ArrayList<>();
+
+    private FlightImportService flightImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(flightBatchService.saveFlightInfos(anyList())).thenAnswer(invocation -> {
+            List<FlightRequest> chunk = invocation.getArgument(0);
+            List<FlightBatchItemResult> results = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                boolean valid = chunk.get(i).departureAirport().length() == 3;
+                if (valid) {
+                    saved.add(chunk.get(i));
+                }
+                results.add(valid
+                        ? FlightBatchItemResult.of(i, (long) saved.size(), FlightBatchItemStatus.CREATED)
+                        : FlightBatchItemResult.of(i, null, FlightBatchItemStatus.INVALID, List.of("Departure airport code must be exactly 3 characters")));
+            }
+            return FlightBatchResponse.of(results);
+        });
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        flightImportService = new FlightImportService(
+                flightBatchService,
+                objectMapper,
+                new FlightBatchProperties(2, 10),
+                new FlightImportProperties(null, DataSize.ofBytes(16), DataSize.ofBytes(256), 10)
+        );
+    }
+
+    @Test
+    void importFileShouldImportCsvInChunksAndReportRejects(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("schedule.csv");
+        Files.writeString(file, """
+                departure_airport,destination_airport,airline,supplier,fare,departure_time,arrival_time
+                GRU,JFK,LATAM,Internal,999.99,2025-07-01T10:00:00,2025-07-01T18:00:00
+                GRUU,JFK,LATAM,Internal,999.99,2025-07-01T10:00:00,2025-07-01T18:00:00
+                AMS,JFK,"KLM, Royal Dutch",Internal,abc,2025-07-01T10:00:00,2025-07-01T18:00:00
+                AMS,JFK,KLM,Internal,,2025-07-01T10:00:00,
+                FRA,JFK,Lufthansa,Internal,250.5,2025-07-01T10:00:00,2025-07-01T18:00:00
+                """);
+
+        FlightImportReport report = flightImportService.importFile(file, FlightImportFormat.of(file));
+
+        assertEquals(3, report.imported());
+        assertEquals(2, report.rejected());
+        assertEquals(List.of(
+                new FlightImportReject(3, List.of("Departure airport code must be exactly 3 characters")),
+                new FlightImportReject(4, List.of("Invalid fare: abc"))
+        ), report.rejects());
+        assertEquals(new FlightRequest("LATAM", "Internal", 999.99, "GRU", "JFK", LocalDateTime.of(2025, 7, 1, 10, 0), LocalDateTime.of(2025, 7, 1, 18, 0)), saved.getFirst());
+        assertEquals(new FlightRequest("KLM", "Internal", null, "AMS", "JFK", LocalDateTime.of(2025, 7, 1, 10, 0), null), saved.get(1));
+        verify(flightBatchService, times(2)).saveFlightInfos(anyList());
+    }
+
+    @Test
+    void importFlightsShouldImportNdjson() throws IOException {
+        String body = """
+                {"airline":"LATAM","supplier":"Internal","fare":999.99,"departureAirport":"GRU","destinationAirport":"JFK","departureTime":"2025-07-01T10:00:00","arrivalTime":"2025-07-01T18:00:00"}
+                {"airline":
+                null
+                {"airline":"KLM","supplier":"Internal","fare":200.0,"departureAirport":"AMS","destinationAirport":"JFK","departureTime":"2025-07-01T10:00:00","arrivalTime":"2025-07-01T18:00:00"}
+                """;
+
+        FlightImportReport report = flightImportService.importFlights(
+                Channels.newChannel(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))),
+                FlightImportFormat.NDJSON);
+
+        assertEquals(2, report.imported());
+        assertEquals(2, report.rejected());
+        assertEquals(2, report.rejects().getFirst().line());
+        assertEquals(new FlightImportReject(3, List.of("Invalid JSON: expected a flight object")), report.rejects().get(1));
+        assertEquals("KLM", saved.get(1).airline());
+    }
+
+    @Test
+    void importFlightsShouldRejectLinesLongerThanTheMaximum() throws IOException {
+        String body = "{\"airline\":\"" + "X".repeat(1_000) + "\"}\n"
+                + "{\"airline\":\"KLM\",\"supplier\":\"Internal\",\"fare\":200.0,\"departureAirport\":\"AMS\",\"destinationAirport\":\"JFK\",\"departureTime\":\"2025-07-01T10:00:00\",\"arrivalTime\":\"2025-07-01T18:00:00\"}\n";
+
+        FlightImportReport report = flightImportService.importFlights(
+                Channels.newChannel(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))),
+                FlightImportFormat.NDJSON);
+
+        assertEquals(1, report.imported());
+        assertEquals(List.of(new FlightImportReject(1, List.of("Line longer than 256 bytes"))), report.rejects());
+        assertEquals("KLM", saved.getFirst().airline());
+    }
+
+    @Test
+    void importShouldFailOnUnknownCsvColumn() {
+        String body = "airline,gate\nLATAM,12\n";
+
+        assertThrows(BusinessException.class, () -> flightImportService.importFlights(
+                Channels.newChannel(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8))),
+                FlightImportFormat.CSV));
+        verifyNoInteractions(flightBatchService);
+    }
+}
@@ -0,0 +1,76 @@
+package com.api.worldline.flights.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LineSplitterTest {
+
+    private static final String TEXT = "first line\r\nsecond, longer line\n\n  \nlast line without newline";
+
+    @Test
+    void shouldSplitLinesCrossingBufferBoundaries() throws IOException {
+        List<String> lines = new ArrayList<>();
+        LineSplitter lineSplitter = new LineSplitter(4, 1024, collectingInto(lines));
+
+        lineSplitter.readFrom(channelOf(TEXT));
+
+        assertEquals(List.of("1:first line", "2:second, longer line", "4:  ", "5:last line without newline"), lines);
+    }
+
+    @Test
+    void shouldReadChannelToTheEnd() throws IOException {
+        List<String> lines = new ArrayList<>();
+        LineSplitter lineSplitter = new LineSplitter(7, 1024, collectingInto(lines));
+
+        lineSplitter.readFrom(channelOf(TEXT));
+
+        assertEquals(List.of("1:first line", "2:second, longer line", "4:  ", "5:last line without newline"), lines);
+    }
+
+    @Test
+    void shouldSkipLinesLongerThanTheMaximumWithoutBufferingThem() throws IOException {
+        List<String> lines = new ArrayList<>();
+        LineSplitter lineSplitter = new LineSplitter(3, 8, collectingInto(lines));
+
+        lineSplitter.readFrom(channelOf("short\r\n" + "x".repeat(100) + "\nexactly8\r\n123456789\nlast\n" + "y".repeat(100)));
+
+        assertEquals(List.of("1:short", "2:too long", "3:exactly8", "4:too long", "5:last", "6:too long"), lines);
+    }
+
+    @Test
+    void shouldSkipLongLinesFullyContainedInOneRead() throws IOException {
+        List<String> lines = new ArrayList<>();
+        LineSplitter lineSplitter = new LineSplitter(64, 4, collectingInto(lines));
+
+        lineSplitter.readFrom(channelOf("abcdef\nabc\n"));
+
+        assertEquals(List.of("1:too long", "2:abc"), lines);
+    }
+
+    private static ReadableByteChannel channelOf(String text) {
+        return Channels.newChannel(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static LineSplitter.LineConsumer collectingInto(List<String> lines) {
+        return new LineSplitter.LineConsumer() {
+            @Override
+            public void accept(byte[] bytes, int offset, int length, long lineNumber) {
+                lines.add(lineNumber + ":" + new String(bytes, offset, length, StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void tooLong(long lineNumber) {
+                lines.add(lineNumber + ":too long");
+            }
+        };
+    }
+}
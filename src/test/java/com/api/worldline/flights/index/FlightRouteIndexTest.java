@@ -0,0 +1,224 @@
+package com.api.worldline.flights.index;
+
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.service.dto.FlightCursor;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import com.api.worldline.flights.service.dto.VersionedFlight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRouteIndexTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2025, 7, 1, 10, 0);
+
+    private final FlightResponse early = flight(1L, "LATAM", "GRU", "JFK", DEPARTURE.minusHours(2));
+    private final FlightResponse noDeparture = flight(2L, "LATAM", "GRU", "JFK", null);
+    private final FlightResponse onTime = flight(3L, "Delta", "GRU", "JFK", DEPARTURE);
+    private final FlightResponse late = flight(4L, "LATAM", "GRU", "JFK", DEPARTURE.plusHours(2));
+    private final FlightResponse otherRoute = flight(5L, "LATAM", "GRU", "FRA", DEPARTURE);
+
+    private FlightRouteIndex flightRouteIndex;
+
+    @BeforeEach
+    void setUp() {
+        flightRouteIndex = new FlightRouteIndex();
+        flightRouteIndex.load(Stream.of(late, otherRoute, onTime, noDeparture, early).map(flight -> versioned(flight, 0L)));
+    }
+
+    @Test
+    void shouldIgnoreWritesUntilLoaded() {
+        FlightRouteIndex index = new FlightRouteIndex();
+
+        index.put(versioned(early, 1L));
+
+        assertFalse(index.isLoaded());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void searchShouldReturnRouteInDepartureOrder() {
+        List<FlightResponse> flights = flightRouteIndex.search(criteria(null, "GRU", "JFK", null, null));
+
+        assertEquals(List.of(noDeparture, early, onTime, late), flights);
+    }
+
+    @Test
+    void searchShouldApplyFilters() {
+        assertEquals(List.of(onTime, late), flightRouteIndex.search(criteria(null, "GRU", "JFK", DEPARTURE, null)));
+        assertEquals(List.of(early, late), flightRouteIndex.search(criteria("LATAM", "GRU", "JFK", DEPARTURE.minusHours(3), null)));
+        assertEquals(List.of(early, onTime), flightRouteIndex.search(criteria(null, "GRU", "JFK", null, DEPARTURE.plusHours(8))));
+        assertEquals(List.of(onTime, otherRoute), flightRouteIndex.search(criteria(null, "GRU", null, DEPARTURE, DEPARTURE.plusHours(8))));
+        assertTrue(flightRouteIndex.search(criteria(null, "JFK", "GRU", null, null)).isEmpty());
+    }
+
+    @Test
+    void forEachMatchShouldVisitEveryMatchingFlight() {
+        List<FlightResponse> visited = new ArrayList<>();
+
+        flightRouteIndex.forEachMatch(criteria("LATAM", "GRU", null, DEPARTURE.minusHours(3), null), visited::add);
+
+        assertEquals(Set.of(early, late, otherRoute), Set.copyOf(visited));
+        assertEquals(3, visited.size());
+    }
+
+    @Test
+    void searchPageShouldResumeAfterCursor() {
+        FlightSearchCriteria criteria = criteria(null, "GRU", null, null, null);
+
+        List<FlightResponse> firstPage = flightRouteIndex.searchPage(criteria, null, 2);
+        List<FlightResponse> secondPage = flightRouteIndex.searchPage(criteria, FlightCursor.of(firstPage.getLast()), 2);
+        List<FlightResponse> lastPage = flightRouteIndex.searchPage(criteria, FlightCursor.of(secondPage.getLast()), 2);
+
+        assertEquals(List.of(noDeparture, early), firstPage);
+        assertEquals(List.of(onTime, otherRoute), secondPage);
+        assertEquals(List.of(late), lastPage);
+    }
+
+    @Test
+    void putShouldMoveUpdatedFlightBetweenRoutes() {
+        FlightResponse moved = flight(onTime.id(), "Delta", "GRU", "FRA", DEPARTURE.plusHours(1));
+
+        flightRouteIndex.put(versioned(moved, 1L));
+
+        assertEquals(List.of(noDeparture, early, late), flightRouteIndex.search(criteria(null, "GRU", "JFK", null, null)));
+        assertEquals(List.of(otherRoute, moved), flightRouteIndex.search(criteria(null, "GRU", "FRA", null, null)));
+        assertEquals(5, flightRouteIndex.size());
+    }
+
+    @Test
+    void putShouldIgnoreWritesOlderThanTheIndexedVersion() {
+        FlightResponse newer = flight(onTime.id(), "Delta", "GRU", "FRA", DEPARTURE.plusHours(1));
+        FlightResponse older = flight(onTime.id(), "Delta", "GRU", "JFK", DEPARTURE.plusHours(3));
+
+        flightRouteIndex.put(versioned(newer, 2L));
+        flightRouteIndex.put(versioned(older, 1L));
+
+        assertEquals(List.of(otherRoute, newer), flightRouteIndex.search(criteria(null, "GRU", "FRA", null, null)));
+        assertEquals(List.of(noDeparture, early, late), flightRouteIndex.search(criteria(null, "GRU", "JFK", null, null)));
+    }
+
+    @Test
+    void putShouldNotBringBackDeletedFlight() {
+        flightRouteIndex.remove(onTime.id());
+        flightRouteIndex.put(versioned(flight(onTime.id(), "Delta", "GRU", "JFK", DEPARTURE.plusHours(1)), 1L));
+        flightRouteIndex.putAll(List.of(versioned(onTime, 2L)));
+
+        assertEquals(List.of(noDeparture, early, late), flightRouteIndex.search(criteria(null, "GRU", "JFK", null, null)));
+        assertEquals(4, flightRouteIndex.size());
+    }
+
+    @Test
+    void removeShouldDropFlight() {
+        flightRouteIndex.remove(otherRoute.id());
+        flightRouteIndex.remove(99L);
+
+        assertTrue(flightRouteIndex.search(criteria(null, "GRU", "FRA", null, null)).isEmpty());
+        assertEquals(4, flightRouteIndex.size());
+    }
+
+    @Test
+    void putAllShouldMergeNewAndMovedFlightsIntoBuckets() {
+        FlightResponse moved = flight(otherRoute.id(), "LATAM", "GRU", "JFK", DEPARTURE.plusHours(1));
+        FlightResponse updated = flight(early.id(), "Delta", "GRU", "JFK", DEPARTURE.plusHours(3));
+        FlightResponse added = flight(6L, "KLM", "GRU", "JFK", DEPARTURE.minusHours(1));
+        FlightResponse addedElsewhere = flight(7L, "KLM", "AMS", "LIS", DEPARTURE);
+
+        flightRouteIndex.putAll(Stream.of(moved, updated, added, addedElsewhere).map(flight -> versioned(flight, 1L)).toList());
+
+        assertEquals(List.of(noDeparture, added, onTime, moved, late, updated), flightRouteIndex.search(criteria(null, "GRU", "JFK", null, null)));
+        assertTrue(flightRouteIndex.search(criteria(null, "GRU", "FRA", null, null)).isEmpty());
+        assertEquals(List.of(addedElsewhere), flightRouteIndex.search(criteria(null, "AMS", "LIS", null, null)));
+        assertEquals(7, flightRouteIndex.size());
+    }
+
+    @Test
+    void putAllShouldKeepNewestWriteOfRepeatedId() {
+        FlightResponse first = flight(6L, "KLM", "GRU", "JFK", DEPARTURE.minusHours(1));
+        FlightResponse second = flight(6L, "KLM", "GRU", "FRA", DEPARTURE.plusHours(1));
+        FlightResponse stale = flight(6L, "KLM", "GRU", "JFK", DEPARTURE);
+
+        flightRouteIndex.putAll(List.of(versioned(first, 0L), versioned(second, 1L), versioned(stale, 0L)));
+
+        assertEquals(List.of(noDeparture, early, onTime, late), flightRouteIndex.search(criteria(null, "GRU", "JFK", null, null)));
+        assertEquals(List.of(otherRoute, second), flightRouteIndex.search(criteria(null, "GRU", "FRA", null, null)));
+        assertEquals(6, flightRouteIndex.size());
+    }
+
+    @Test
+    void putAllShouldBuildLargeBucketInOrder() {
+        List<VersionedFlight> flights = new ArrayList<>();
+        for (long id = 100; id < 10_100; id++) {
+            flights.add(versioned(flight(id, "KLM", "AMS", "LIS", DEPARTURE.plusMinutes((id * 7919) % 10_000)), 0L));
+        }
+
+        flightRouteIndex.putAll(flights);
+
+        List<FlightResponse> bucket = flightRouteIndex.search(criteria(null, "AMS", "LIS", null, null));
+        assertEquals(10_000, bucket.size());
+        for (int row = 1; row < bucket.size(); row++) {
+            assertTrue(bucket.get(row - 1).departureTime().isBefore(bucket.get(row).departureTime())
+                    || bucket.get(row - 1).departureTime().equals(bucket.get(row).departureTime()) && bucket.get(row - 1).id() < bucket.get(row).id());
+        }
+    }
+
+    @Test
+    void removeAllShouldDropFlightsAndEmptyBuckets() {
+        flightRouteIndex.removeAll(List.of(early.id(), otherRoute.id(), 99L));
+
+        assertEquals(List.of(noDeparture, onTime, late), flightRouteIndex.search(criteria(null, "GRU", "JFK", null, null)));
+        assertTrue(flightRouteIndex.search(criteria(null, "GRU", null, null, null)).stream().noneMatch(flight -> flight.destinationAirport().equals("FRA")));
+        assertEquals(3, flightRouteIndex.size());
+    }
+
+    @Test
+    void shouldRoundTripValuesOutsideThePackedEncodings() {
+        FlightResponse unusual = new FlightResponse(
+                6L,
+                null,
+                null,
+                10.005,
+                "EDDF",
+                "gRu",
+                DEPARTURE.withNano(123_456_789),
+                null
+        );
+        FlightResponse noFare = new FlightResponse(7L, "KLM", "Internal", null, "EDDF", "gRu", DEPARTURE, DEPARTURE.plusHours(1));
+
+        flightRouteIndex.put(versioned(unusual, 0L));
+        flightRouteIndex.put(versioned(noFare, 0L));
+
+        assertEquals(List.of(noFare, unusual), flightRouteIndex.search(criteria(null, "EDDF", "gRu", null, null)));
+        assertEquals(List.of(unusual), flightRouteIndex.search(criteria(null, "EDDF", null, DEPARTURE.plusNanos(1), null)));
+        assertTrue(flightRouteIndex.search(criteria("Unknown", "EDDF", "gRu", null, null)).isEmpty());
+    }
+
+    private static FlightSearchCriteria criteria(String airline, String departureAirport, String destinationAirport,
+                                                 LocalDateTime departureTime, LocalDateTime arrivalTime) {
+        return new FlightSearchCriteria(airline, departureAirport, destinationAirport, departureTime, arrivalTime);
+    }
+
+    private static VersionedFlight versioned(FlightResponse flight, Long version) {
+        return new VersionedFlight(flight, version);
+    }
+
+    private static FlightResponse flight(Long id, String airline, String departureAirport, String destinationAirport, LocalDateTime departureTime) {
+        return new FlightResponse(
+                id,
+                airline,
+                "Internal",
+                999.99,
+                departureAirport,
+                destinationAirport,
+                departureTime,
+                departureTime == null ? null : departureTime.plusHours(8)
+        );
+    }
+}
@@ -0,0 +1,38 @@
+package com.api.worldline.flights.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongHashMapTest {
+
+    private static final long MISSING = -1L;
+
+    @Test
+    void shouldBehaveLikeHashMapUnderRandomOperations() {
+        LongLongHashMap map = new LongLongHashMap(0);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.getOrDefault(key, MISSING), map.remove(key, MISSING));
+                expected.remove(key);
+            } else {
+                long value = random.nextInt(1_000);
+                assertEquals(expected.getOrDefault(key, MISSING), map.put(key, value, MISSING));
+                expected.put(key, value);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(expected.getOrDefault(key, MISSING), map.get(key, MISSING));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.api.worldline.flights.repository;
+
+import com.api.worldline.flights.model.Flight;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.api.worldline.flights.repository.CapturingStatementInspector")
+public class FlightRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 7, 1, 0, 0);
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        List<String> airports = List.of("GRU", "JFK", "FRA", "AMS", "LHR");
+        for (int i = 0; i < 500; i++) {
+            flightRepository.save(createFlight(
+                    i % 2 == 0 ? "Lufthansa" : "Delta",
+                    airports.get(i % airports.size()),
+                    airports.get((i + 1) % airports.size()),
+                    START.plusHours(i)));
+        }
+        flightRepository.flush();
+        CapturingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    public void testSearchFlightsOnlyEmitsSuppliedFilters() {
+        List<Flight> flights = flightRepository.searchFlights(null, "GRU", "JFK", START.plusDays(5), null);
+
+        Assertions.assertFalse(flights.isEmpty());
+        flights.forEach(flight -> {
+            Assertions.assertEquals("GRU", flight.getDepartureAirport());
+            Assertions.assertEquals("JFK", flight.getDestinationAirport());
+            Assertions.assertFalse(flight.getDepartureTime().isBefore(START.plusDays(5)));
+        });
+
+        String sql = lastStatement();
+        Assertions.assertFalse(sql.toLowerCase().contains("is null"), sql);
+        Assertions.assertFalse(sql.toLowerCase().contains("airline="), sql);
+    }
+
+    @Test
+    public void testSearchFlightsUsesRouteIndex() {
+        flightRepository.searchFlights(null, "GRU", "JFK", START.plusDays(5), null);
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + lastStatement(), String.class, "GRU", "JFK", START.plusDays(5));
+
+        Assertions.assertTrue(plan.toUpperCase().contains("IDX_FLIGHTS_ROUTE_DEPARTURE"), plan);
+    }
+
+    @Test
+    public void testSearchFlightsPageContinuesAfterKeyset() {
+        List<Flight> firstPage = flightRepository.searchFlightsPage(null, null, null, null, null, null, null, PageRequest.ofSize(10));
+        Assertions.assertEquals(10, firstPage.size());
+
+        Flight last = firstPage.getLast();
+        List<Flight> secondPage = flightRepository.searchFlightsPage(null, null, null, null, null, last.getDepartureTime(), last.getId(), PageRequest.ofSize(10));
+        Assertions.assertEquals(10, secondPage.size());
+        Assertions.assertTrue(secondPage.getFirst().getDepartureTime().isAfter(last.getDepartureTime()));
+        Assertions.assertTrue(lastStatement().toLowerCase().contains("order by"), lastStatement());
+    }
+
+    private String lastStatement() {
+        return CapturingStatementInspector.STATEMENTS.getLast();
+    }
+
+    private Flight createFlight(String airline, String departureAirport, String destinationAirport, LocalDateTime departureTime) {
+        Flight flightInfo = new Flight();
+        flightInfo.setAirline(airline);
+        flightInfo.setSupplier("WorldLine");
+        flightInfo.setFare(250.50);
+        flightInfo.setDepartureAirport(departureAirport);
+        flightInfo.setDestinationAirport(destinationAirport);
+        flightInfo.setDepartureTime(departureTime);
+        flightInfo.setArrivalTime(departureTime.plusHours(8));
+        return flightInfo;
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.api.worldline.flights.repository;
+
+import com.api.worldline.flights.model.Flight;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * Starts the application with the perf profile on a file-based H2 database, so that the Flyway
+ * migrations are checked against the entity mappings by {@code ddl-auto: validate}.
+ */
+@SpringBootTest
+@ActiveProfiles("perf")
+@DirtiesContext
+public class PerfProfileTest {
+
+    @TempDir
+    static Path dataDir;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JpaProperties jpaProperties;
+
+    @DynamicPropertySource
+    static void registerDynamicProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + dataDir.resolve("flights") + ";QUERY_CACHE_SIZE=256");
+    }
+
+    @Test
+    public void testSchemaIsManagedByFlyway() {
+        Assertions.assertTrue(flyway.info().applied().length > 0);
+        Assertions.assertEquals(0, flyway.info().pending().length);
+    }
+
+    @Test
+    public void testPoolAndLoggingSettings() {
+        HikariDataSource hikari = Assertions.assertInstanceOf(HikariDataSource.class, dataSource);
+        Assertions.assertEquals(20, hikari.getMaximumPoolSize());
+        Assertions.assertEquals(20, hikari.getMinimumIdle());
+        Assertions.assertFalse(jpaProperties.isShowSql());
+    }
+
+    @Test
+    public void testFlightsRoundTrip() {
+        Flight flight = new Flight();
+        flight.setAirline("Lufthansa");
+        flight.setSupplier("Worldline");
+        flight.setFare(250.0);
+        flight.setDepartureAirport("FRA");
+        flight.setDestinationAirport("JFK");
+        flight.setDepartureTime(LocalDateTime.of(2025, 7, 10, 14, 30));
+        flight.setArrivalTime(LocalDateTime.of(2025, 7, 10, 22, 45));
+
+        Flight saved = flightRepository.save(flight);
+
+        Flight found = flightRepository.findById(saved.getId()).orElseThrow();
+        Assertions.assertEquals("Lufthansa", found.getAirline());
+        Assertions.assertEquals(0L, found.getVersion());
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.api.worldline.flights.service;
+
+import com.api.worldline.flights.client.dto.CrazySupplierFlightsLoaded;
+import com.api.worldline.flights.client.dto.FlightCrazySupplierRequest;
+import com.api.worldline.flights.client.dto.FlightCrazySupplierResponse;
+import com.api.worldline.flights.config.FareCalendarProperties;
+import com.api.worldline.flights.config.FlightMapper;
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import com.api.worldline.flights.model.FareCalendarEntry;
+import com.api.worldline.flights.repository.FareCalendarRepository;
+import com.api.worldline.flights.repository.FlightRepository;
+import com.api.worldline.flights.supplier.CrazyFlightSupplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class FareCalendarServiceTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2025, 7, 1, 10, 0);
+
+    private final FlightCrazySupplierResponse supplierFlight =
+            new FlightCrazySupplierResponse("LATAM", 800.0, 70.0, "GRU", "JFK", DEPARTURE, DEPARTURE.plusHours(8));
+
+    @Mock
+    private FlightMapper flightMapper;
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private FareCalendarRepository fareCalendarRepository;
+
+    private FareCalendarService fareCalendarService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        FareCalendarProperties properties = new FareCalendarProperties(true, Duration.ofSeconds(5), Duration.ofHours(1));
+        fareCalendarService = new FareCalendarService(
+                flightMapper,
+                flightRepository,
+                fareCalendarRepository,
+                new FareCalendarChanges(properties),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                properties
+        );
+        when(flightMapper.fromCrazySupplierToResponse(supplierFlight)).thenReturn(
+                new FlightResponse(null, "LATAM", "CrazySupplier", 870.0, "GRU", "JFK", DEPARTURE, DEPARTURE.plusHours(8)));
+    }
+
+    @Test
+    void refreshShouldStoreSupplierFaresOfUnfilteredFetches() {
+        fareCalendarService.onSupplierFlightsLoaded(new CrazySupplierFlightsLoaded(
+                new FlightCrazySupplierRequest("GRU", "JFK", null, null), List.of(supplierFlight)));
+        fareCalendarService.refresh();
+
+        ArgumentCaptor<FareCalendarEntry> entry = ArgumentCaptor.forClass(FareCalendarEntry.class);
+        verify(fareCalendarRepository).save(entry.capture());
+        assertEquals(new FareCalendarEntry.Key("GRU", "JFK", DEPARTURE.toLocalDate(), CrazyFlightSupplier.NAME), entry.getValue().getId());
+        assertEquals(870.0, entry.getValue().getMinFare());
+        assertEquals(1L, entry.getValue().getFlightCount());
+        assertNotNull(entry.getValue().getFetchedAt());
+    }
+
+    @Test
+    void refreshShouldIgnoreFetchesFilteredByTime() {
+        fareCalendarService.onSupplierFlightsLoaded(new CrazySupplierFlightsLoaded(
+                new FlightCrazySupplierRequest("GRU", "JFK", DEPARTURE, null), List.of(supplierFlight)));
+        fareCalendarService.refresh();
+
+        verify(fareCalendarRepository, never()).save(any());
+        verify(flightMapper, never()).fromCrazySupplierToResponse(any());
+    }
+
+    @Test
+    void refreshShouldRemoveSupplierEntriesOlderThanTheMaxAge() {
+        LocalDateTime oldest = LocalDateTime.now().minusHours(1);
+        fareCalendarService.refresh();
+
+        ArgumentCaptor<LocalDateTime> expiredBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(fareCalendarRepository).deleteFetchedBefore(expiredBefore.capture());
+        assertFalse(expiredBefore.getValue().isBefore(oldest));
+        assertFalse(expiredBefore.getValue().isAfter(LocalDateTime.now().minusHours(1)));
+    }
+
+}
@@ -0,0 +1,163 @@
+package com.api.worldline.flights.service;
+
+import com.api.worldline.flights.config.FareCalendarProperties;
+import com.api.worldline.flights.config.FlightBatchProperties;
+import com.api.worldline.flights.config.FlightMapper;
+import com.api.worldline.flights.controller.dto.FlightBatchItemStatus;
+import com.api.worldline.flights.controller.dto.FlightBatchResponse;
+import com.api.worldline.flights.controller.dto.FlightRequest;
+import com.api.worldline.flights.exception.BusinessException;
+import com.api.worldline.flights.index.FlightRouteIndex;
+import com.api.worldline.flights.model.Flight;
+import com.api.worldline.flights.repository.FlightRepository;
+import com.api.worldline.flights.service.dto.VersionedFlight;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class FlightBatchServiceTest {
+
+    @Mock
+    private FlightMapper flightMapper;
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private FlightBatchService flightBatchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        flightBatchService = new FlightBatchService(
+                flightMapper,
+                flightRepository,
+                new FlightRouteIndex(),
+                new FlightDataVersion(),
+                new FareCalendarChanges(new FareCalendarProperties(false, Duration.ofSeconds(5), Duration.ofHours(1))),
+                transactionTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new FlightBatchProperties(2, 10)
+        );
+    }
+
+    @Test
+    void saveFlightInfosShouldWriteValidItemsInChunks() {
+        List<FlightRequest> flightRequests = List.of(flightRequest("AMS"), flightRequest("AMSS"), flightRequest("GRU"), flightRequest("FRA"));
+        when(flightMapper.toEntity(any())).thenAnswer(invocation -> new Flight());
+        when(flightRepository.saveAll(anyList())).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        FlightBatchResponse response = flightBatchService.saveFlightInfos(flightRequests);
+
+        assertEquals(3, response.succeeded());
+        assertEquals(1, response.failed());
+        assertEquals(FlightBatchItemStatus.INVALID, response.results().get(1).status());
+        verify(flightRepository, times(2)).saveAll(anyList());
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void saveFlightInfosShouldRetryFailedChunkItemByItem() {
+        FlightRequest broken = flightRequest("GRU");
+        List<FlightRequest> flightRequests = List.of(flightRequest("AMS"), broken);
+        when(flightMapper.toEntity(any())).thenAnswer(invocation -> {
+            if (invocation.getArgument(0) == broken) {
+                throw new IllegalStateException("Mapping failed");
+            }
+            return new Flight();
+        });
+        when(flightRepository.saveAll(anyList())).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        FlightBatchResponse response = flightBatchService.saveFlightInfos(flightRequests);
+
+        assertEquals(FlightBatchItemStatus.CREATED, response.results().get(0).status());
+        assertEquals(FlightBatchItemStatus.FAILED, response.results().get(1).status());
+        assertEquals(List.of("Error on saving flight"), response.results().get(1).messages());
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    void saveFlightInfosShouldNotWriteCommittedChunkAgainWhenIndexingFails() {
+        FlightRouteIndex failingIndex = new FlightRouteIndex() {
+            @Override
+            public void putAll(Collection<VersionedFlight> flights) {
+                throw new IllegalStateException("Indexing failed");
+            }
+        };
+        failingIndex.load(Stream.empty());
+        FlightDataVersion flightDataVersion = new FlightDataVersion();
+        long before = flightDataVersion.current();
+        flightBatchService = new FlightBatchService(
+                flightMapper,
+                flightRepository,
+                failingIndex,
+                flightDataVersion,
+                new FareCalendarChanges(new FareCalendarProperties(false, Duration.ofSeconds(5), Duration.ofHours(1))),
+                transactionTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new FlightBatchProperties(2, 10)
+        );
+        when(flightMapper.toEntity(any())).thenAnswer(invocation -> new Flight());
+        when(flightRepository.saveAll(anyList())).thenAnswer(invocation -> withIds(invocation.getArgument(0)));
+
+        assertThrows(IllegalStateException.class, () -> flightBatchService.saveFlightInfos(List.of(flightRequest("AMS"), flightRequest("GRU"))));
+
+        verify(flightRepository, times(1)).saveAll(anyList());
+        verify(transactionTemplate, times(1)).execute(any());
+        assertEquals(before + 1, flightDataVersion.current());
+    }
+
+    @Test
+    void deleteFlightInfosShouldReportMissingFlights() {
+        when(flightRepository.findExistingIds(anyList())).thenReturn(List.of(1L));
+
+        FlightBatchResponse response = flightBatchService.deleteFlightInfos(List.of(1L, 2L));
+
+        assertEquals(FlightBatchItemStatus.DELETED, response.results().get(0).status());
+        assertEquals(FlightBatchItemStatus.NOT_FOUND, response.results().get(1).status());
+        verify(flightRepository).deleteAllByIdInBatch(Set.of(1L));
+    }
+
+    @Test
+    void batchShouldRejectTooManyItems() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = 0; id < 11; id++) {
+            ids.add(id);
+        }
+
+        assertThrows(BusinessException.class, () -> flightBatchService.deleteFlightInfos(ids));
+        verifyNoInteractions(flightRepository);
+    }
+
+    private static List<Flight> withIds(List<Flight> flights) {
+        long id = 1;
+        for (Flight flight : flights) {
+            flight.setId(id++);
+        }
+        return flights;
+    }
+
+    private static FlightRequest flightRequest(String departureAirport) {
+        return new FlightRequest("Delta", "Worldline", 200.1, departureAirport, "JFK", LocalDateTime.now(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,60 @@
+package com.api.worldline.flights.service;
+
+import com.api.worldline.flights.config.FlightDedupProperties;
+import com.api.worldline.flights.controller.dto.FlightResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightDeduplicatorTest {
+
+    private static final LocalDateTime DEPARTURE = LocalDateTime.of(2025, 7, 1, 10, 0);
+
+    private final FlightResponse databaseFlight = flight(1L, "Internal", 300.0, DEPARTURE);
+    private final FlightResponse supplierFlight = flight(null, "CrazySupplier", 250.0, DEPARTURE);
+    private final FlightResponse laterFlight = flight(2L, "Internal", 100.0, DEPARTURE.plusHours(1));
+
+    @Test
+    void deduplicateShouldKeepCheapestDuplicateInPlace() {
+        FlightDeduplicator deduplicator = deduplicator(true, FlightDedupProperties.Policy.CHEAPEST, List.of());
+
+        List<FlightResponse> flights = deduplicator.deduplicate(List.of(databaseFlight, supplierFlight, laterFlight));
+
+        assertEquals(List.of(supplierFlight, laterFlight), flights);
+    }
+
+    @Test
+    void deduplicateShouldKeepPreferredSupplierEvenWhenPricier() {
+        FlightDeduplicator deduplicator = deduplicator(true, FlightDedupProperties.Policy.PREFERRED_SUPPLIER, List.of("Internal"));
+
+        List<FlightResponse> flights = deduplicator.deduplicate(List.of(databaseFlight, supplierFlight, laterFlight));
+
+        assertEquals(List.of(databaseFlight, laterFlight), flights);
+    }
+
+    @Test
+    void deduplicateShouldFallBackToCheapestForUnlistedSuppliers() {
+        FlightDeduplicator deduplicator = deduplicator(true, FlightDedupProperties.Policy.PREFERRED_SUPPLIER, List.of("Other"));
+
+        assertEquals(List.of(supplierFlight), deduplicator.deduplicate(List.of(databaseFlight, supplierFlight)));
+    }
+
+    @Test
+    void deduplicateShouldKeepEverythingWhenDisabled() {
+        FlightDeduplicator deduplicator = deduplicator(false, FlightDedupProperties.Policy.CHEAPEST, List.of());
+
+        assertEquals(List.of(databaseFlight, supplierFlight), deduplicator.deduplicate(List.of(databaseFlight, supplierFlight)));
+    }
+
+    private static FlightDeduplicator deduplicator(boolean enabled, FlightDedupProperties.Policy policy, List<String> preferredSuppliers) {
+        return new FlightDeduplicator(new FlightDedupProperties(enabled, policy, preferredSuppliers));
+    }
+
+    private static FlightResponse flight(Long id, String supplier, double fare, LocalDateTime departureTime) {
+        return new FlightResponse(id, "LATAM", supplier, fare, "GRU", "JFK", departureTime, departureTime.plusHours(8));
+    }
+
+}
@@ -1,27 +1,65 @@
 package com.api.worldline.flights.service;
 
+import com.api.worldline.flights.client.CachedCrazySupplierClient;
 import com.api.worldline.flights.client.CrazySupplierClient;
+import com.api.worldline.flights.client.ResilientCrazySupplierClient;
 import com.api.worldline.flights.client.dto.FlightCrazySupplierRequest;
 import com.api.worldline.flights.client.dto.FlightCrazySupplierResponse;
+import com.api.worldline.flights.config.FareCalendarProperties;
+import com.api.worldline.flights.config.FlightDedupProperties;
 import com.api.worldline.flights.config.FlightMapper;
+import com.api.worldline.flights.config.FlightSearchProperties;
+import com.api.worldline.flights.config.SupplierCacheProperties;
 import com.api.worldline.flights.controller.dto.FlightRequest;
 import com.api.worldline.flights.controller.dto.FlightResponse;
 import com.api.worldline.flights.exception.BusinessException;
+import com.api.worldline.flights.exception.PreconditionFailedException;
 import com.api.worldline.flights.exception.TechnicalException;
+import com.api.worldline.flights.index.FlightRouteIndex;
 import com.api.worldline.flights.model.Flight;
 import com.api.worldline.flights.repository.FlightRepository;
+import com.api.worldline.flights.service.dto.FlightCursor;
+import com.api.worldline.flights.service.dto.FlightPageRequest;
+import com.api.worldline.flights.service.dto.FlightSearchCriteria;
+import com.api.worldline.flights.service.dto.FlightSearchResult;
+import com.api.worldline.flights.service.dto.FlightSort;
+import com.api.worldline.flights.service.dto.RouteDay;
+import com.api.worldline.flights.service.dto.VersionedFlight;
+import com.api.worldline.flights.supplier.CrazyFlightSupplier;
+import com.api.worldline.flights.supplier.SupplierAggregator;
+import com.api.worldline.flights.supplier.SupplierStatus;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class FlightServiceTest {
@@ -35,12 +73,54 @@ class FlightServiceTest {
     @Mock
     private CrazySupplierClient crazySupplierClient;
 
-    @InjectMocks
+    private FlightRouteIndex flightRouteIndex;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private SupplierAggregator supplierAggregator;
+
+    private FareCalendarChanges fareCalendarChanges;
+
+    private FlightDataVersion flightDataVersion;
+
     private FlightService flightService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        flightRouteIndex = new FlightRouteIndex();
+        flightDataVersion = new FlightDataVersion();
+        fareCalendarChanges = new FareCalendarChanges(new FareCalendarProperties(false, Duration.ofSeconds(5), Duration.ofHours(1)));
+        flightService = flightService(Executors.newCachedThreadPool());
+    }
+
+    private FlightService flightService(Executor executor) {
+        FlightSearchProperties properties = new FlightSearchProperties(
+                Duration.ofSeconds(5),
+                Duration.ofMillis(200),
+                Map.of(),
+                100,
+                500,
+                true,
+                new FlightSearchProperties.Executor(4, 4, 10)
+        );
+        SupplierCacheProperties cacheProperties = new SupplierCacheProperties(true, Duration.ofSeconds(30), 100, null, false, Duration.ofHours(1), new SupplierCacheProperties.Loader(4, 100));
+        ResilientCrazySupplierClient resilientClient = new ResilientCrazySupplierClient(
+                crazySupplierClient,
+                CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults()
+        );
+        FlightSearchMetrics metrics = new FlightSearchMetrics(meterRegistry);
+        supplierAggregator = new SupplierAggregator(
+                List.of(new CrazyFlightSupplier(new CachedCrazySupplierClient(resilientClient, cacheProperties, executor, meterRegistry, event -> { }), flightMapper)),
+                executor,
+                properties,
+                metrics
+        );
+        return new FlightService(flightMapper, flightRepository, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                supplierAggregator, flightRouteIndex, flightDataVersion, fareCalendarChanges, metrics,
+                new FlightDeduplicator(new FlightDedupProperties(true, FlightDedupProperties.Policy.CHEAPEST, List.of())), executor, properties);
     }
 
     @Test
@@ -52,7 +132,6 @@ class FlightServiceTest {
         LocalDateTime arrTime = depTime.plusHours(5);
 
         Flight flight = new Flight();
-        FlightRequest flightRequest = getFlightDTO();
         FlightCrazySupplierResponse supplierResponse = new FlightCrazySupplierResponse(
                 "LATAM",
                 800.0,
@@ -62,28 +141,215 @@ class FlightServiceTest {
                 depTime,
                 arrTime
         );
-        FlightResponse supplierDTO = getFlightResponse();
+        FlightResponse supplierDTO = getSupplierFlightResponse(depTime);
 
-        when(flightRepository.searchFlights(airline, dep, dest, depTime, arrTime)).thenReturn(List.of(flight));
+        when(flightRepository.searchFlightsPage(eq(airline), eq(dep), eq(dest), eq(depTime), eq(arrTime), isNull(), isNull(), any())).thenReturn(List.of(flight));
+        when(flightMapper.toResponse(flight)).thenReturn(getFlightResponse());
 
         when(crazySupplierClient.getFlights(any(FlightCrazySupplierRequest.class))).thenReturn(List.of(supplierResponse));
         when(flightMapper.fromCrazySupplierToResponse(supplierResponse)).thenReturn(supplierDTO);
 
-        List<FlightResponse> result = flightService.getFlights(airline, dep, dest, depTime, arrTime);
+        FlightSearchResult result = flightService.searchFlights(new FlightSearchCriteria(airline, dep, dest, depTime, arrTime), firstPage(100));
 
-        assertEquals(2, result.size());
-        verify(flightRepository).searchFlights(airline, dep, dest, depTime, arrTime);
+        assertEquals(2, result.flights().size());
+        assertNull(result.nextPageToken());
+        verify(flightRepository).searchFlightsPage(eq(airline), eq(dep), eq(dest), eq(depTime), eq(arrTime), isNull(), isNull(), any());
         verify(crazySupplierClient).getFlights(any());
+        assertEquals(1, meterRegistry.get("flights.search.stage").tag("stage", FlightSearchMetrics.STAGE_DATABASE).timer().count());
+        assertEquals(1, meterRegistry.get("flights.search.stage").tag("stage", FlightSearchMetrics.STAGE_MERGE).timer().count());
+        assertEquals(1, meterRegistry.get("flights.search.supplier").tag("supplier", CrazyFlightSupplier.NAME).tag("status", "OK").timer().count());
+        assertEquals(2.0, meterRegistry.get("flights.search.results").tag("source", FlightSearchMetrics.SOURCE_PAGE).summary().totalAmount());
+    }
+
+    @Test
+    void getFlightsShouldMergeSourcesByDepartureTimeAndPage() {
+        LocalDateTime depTime = LocalDateTime.of(2025, 7, 1, 10, 0);
+        Flight flight = new Flight();
+        FlightResponse databaseFlight = getFlightResponse();
+        FlightCrazySupplierResponse earlySupplierResponse = new FlightCrazySupplierResponse("LATAM", 800.0, 70.0, "GRU", "JFK", depTime.minusHours(1), depTime.plusHours(8));
+        FlightCrazySupplierResponse lateSupplierResponse = new FlightCrazySupplierResponse("LATAM", 800.0, 70.0, "GRU", "JFK", depTime.plusHours(1), depTime.plusHours(8));
+        FlightResponse earlySupplierFlight = getSupplierFlightResponse(depTime.minusHours(1));
+        FlightResponse lateSupplierFlight = getSupplierFlightResponse(depTime.plusHours(1));
+
+        when(flightRepository.searchFlightsPage(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(List.of(flight));
+        when(flightMapper.toResponse(flight)).thenReturn(databaseFlight);
+        when(crazySupplierClient.getFlights(any())).thenReturn(List.of(lateSupplierResponse, earlySupplierResponse));
+        when(flightMapper.fromCrazySupplierToResponse(earlySupplierResponse)).thenReturn(earlySupplierFlight);
+        when(flightMapper.fromCrazySupplierToResponse(lateSupplierResponse)).thenReturn(lateSupplierFlight);
+
+        FlightSearchCriteria criteria = new FlightSearchCriteria(null, null, null, null, null);
+        FlightSearchResult firstPage = flightService.searchFlights(criteria, firstPage(2));
+
+        assertEquals(List.of(earlySupplierFlight, databaseFlight), firstPage.flights());
+        assertNotNull(firstPage.nextPageToken());
+
+        FlightCursor cursor = FlightCursor.decode(firstPage.nextPageToken());
+        assertEquals(databaseFlight.departureTime(), cursor.departureTime());
+        assertEquals(databaseFlight.id(), cursor.id());
+
+        when(flightRepository.searchFlightsPage(any(), any(), any(), any(), any(), eq(depTime), eq(databaseFlight.id()), any())).thenReturn(List.of());
+        FlightSearchResult secondPage = flightService.searchFlights(criteria, new FlightPageRequest(cursor, 2));
+
+        assertEquals(List.of(lateSupplierFlight), secondPage.flights());
+        assertNull(secondPage.nextPageToken());
+    }
+
+    @Test
+    void getFlightsShouldDeduplicateAcrossSourcesWithoutSplittingDuplicatesOverPages() {
+        LocalDateTime depTime = LocalDateTime.of(2025, 7, 1, 10, 0);
+        Flight earlyFlight = new Flight();
+        earlyFlight.setId(2L);
+        Flight duplicatedFlight = new Flight();
+        duplicatedFlight.setId(1L);
+        FlightResponse earlyDatabaseFlight = new FlightResponse(2L, "LATAM", "Internal", 500.0, "GRU", "JFK", depTime.minusHours(1), depTime.plusHours(7));
+        FlightResponse duplicatedDatabaseFlight = getFlightResponse();
+        FlightCrazySupplierResponse supplierResponse = new FlightCrazySupplierResponse("LATAM", 800.0, 70.0, "GRU", "JFK", depTime, depTime.plusHours(8));
+        FlightResponse supplierFlight = getSupplierFlightResponse(depTime);
+
+        when(flightRepository.searchFlightsPage(any(), any(), any(), any(), any(), isNull(), isNull(), any())).thenReturn(List.of(earlyFlight, duplicatedFlight));
+        when(flightMapper.toResponse(earlyFlight)).thenReturn(earlyDatabaseFlight);
+        when(flightMapper.toResponse(duplicatedFlight)).thenReturn(duplicatedDatabaseFlight);
+        when(crazySupplierClient.getFlights(any())).thenReturn(List.of(supplierResponse));
+        when(flightMapper.fromCrazySupplierToResponse(supplierResponse)).thenReturn(supplierFlight);
+
+        FlightSearchCriteria criteria = new FlightSearchCriteria(null, null, null, null, null);
+        FlightSearchResult firstPage = flightService.searchFlights(criteria, firstPage(2));
+
+        assertEquals(List.of(earlyDatabaseFlight), firstPage.flights());
+        assertNotNull(firstPage.nextPageToken());
+
+        when(flightRepository.searchFlightsPage(any(), any(), any(), any(), any(), eq(depTime.minusHours(1)), eq(2L), any())).thenReturn(List.of(duplicatedFlight));
+        FlightSearchResult secondPage = flightService.searchFlights(criteria, new FlightPageRequest(FlightCursor.decode(firstPage.nextPageToken()), 2));
+
+        assertEquals(List.of(supplierFlight), secondPage.flights());
+        assertNull(secondPage.nextPageToken());
+    }
+
+    @Test
+    void searchTopFlightsShouldKeepCheapestFlightsAcrossSources() {
+        LocalDateTime depTime = LocalDateTime.of(2025, 7, 1, 10, 0);
+        Flight flight = new Flight();
+        FlightResponse databaseFlight = getFlightResponse();
+        FlightCrazySupplierResponse earlySupplierResponse = new FlightCrazySupplierResponse("LATAM", 800.0, 70.0, "GRU", "JFK", depTime.minusHours(1), depTime.plusHours(8));
+        FlightCrazySupplierResponse lateSupplierResponse = new FlightCrazySupplierResponse("LATAM", 800.0, 70.0, "GRU", "JFK", depTime.plusHours(1), depTime.plusHours(8));
+        FlightResponse earlySupplierFlight = getSupplierFlightResponse(depTime.minusHours(1));
+        FlightResponse lateSupplierFlight = getSupplierFlightResponse(depTime.plusHours(1));
+
+        when(flightRepository.searchCheapestFlights(any(), any(), any(), any(), any(), any())).thenReturn(List.of(flight));
+        when(flightMapper.toResponse(flight)).thenReturn(databaseFlight);
+        when(crazySupplierClient.getFlights(any())).thenReturn(List.of(lateSupplierResponse, earlySupplierResponse));
+        when(flightMapper.fromCrazySupplierToResponse(earlySupplierResponse)).thenReturn(earlySupplierFlight);
+        when(flightMapper.fromCrazySupplierToResponse(lateSupplierResponse)).thenReturn(lateSupplierFlight);
+
+        FlightSearchResult result = flightService.searchTopFlights(new FlightSearchCriteria(null, null, null, null, null), FlightSort.FARE, 2);
+
+        assertEquals(List.of(earlySupplierFlight, lateSupplierFlight), result.flights());
+        assertNull(result.nextPageToken());
+        verify(flightRepository).searchCheapestFlights(isNull(), isNull(), isNull(), isNull(), isNull(), eq(PageRequest.ofSize(2)));
+        verify(flightRepository, never()).searchFlightsPage(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void searchTopFlightsShouldReadPastDuplicatedDatabaseRowsOnce() {
+        LocalDateTime depTime = LocalDateTime.of(2025, 7, 1, 10, 0);
+        FlightResponse cheapest = new FlightResponse(1L, "LATAM", "Internal", 100.0, "GRU", "JFK", depTime, depTime.plusHours(8));
+        FlightResponse duplicate = new FlightResponse(2L, "LATAM", "Internal", 110.0, "GRU", "JFK", depTime, depTime.plusHours(8));
+        FlightResponse other = new FlightResponse(3L, "LATAM", "Internal", 120.0, "GRU", "JFK", depTime.plusHours(2), depTime.plusHours(10));
+        List<Flight> rows = new ArrayList<>();
+        for (FlightResponse response : List.of(cheapest, duplicate, other)) {
+            Flight row = new Flight();
+            row.setId(response.id());
+            when(flightMapper.toResponse(row)).thenReturn(response);
+            rows.add(row);
+        }
+        when(flightRepository.searchCheapestFlights(any(), any(), any(), any(), any(), eq(PageRequest.ofSize(2)))).thenReturn(rows.subList(0, 2));
+        when(flightRepository.searchCheapestFlights(any(), any(), any(), any(), any(), eq(PageRequest.ofSize(3)))).thenReturn(rows);
+        when(crazySupplierClient.getFlights(any())).thenReturn(List.of());
+
+        FlightSearchResult result = flightService.searchTopFlights(new FlightSearchCriteria(null, null, null, null, null), FlightSort.FARE, 2);
+
+        assertEquals(List.of(cheapest, other), result.flights());
+        verify(flightRepository, times(2)).searchCheapestFlights(any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getFlightsShouldServeDatabaseFlightsFromLoadedRouteIndex() {
+        FlightResponse indexedFlight = getFlightResponse();
+        flightRouteIndex.load(Stream.of(new VersionedFlight(indexedFlight, 0L)));
+        when(crazySupplierClient.getFlights(any())).thenReturn(List.of());
+
+        FlightSearchResult result = flightService.searchFlights(new FlightSearchCriteria(null, "GRU", "JFK", null, null), firstPage(100));
+
+        assertEquals(List.of(indexedFlight), result.flights());
+        verifyNoInteractions(flightRepository);
+    }
+
+    @Test
+    void getFlightsShouldCarryTheVersionOfTheSupplierResultsItMerged() {
+        when(flightRepository.searchFlightsPage(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(Collections.emptyList());
+        when(crazySupplierClient.getFlights(any())).thenReturn(List.of());
+        FlightSearchCriteria criteria = new FlightSearchCriteria(null, "GRU", "JFK", null, null);
+
+        FlightSearchResult result = flightService.searchFlights(criteria, firstPage(100));
+
+        assertNotNull(result.supplierVersion());
+        assertTrue(result.supplierVersion().startsWith(CrazyFlightSupplier.NAME + "="));
+        assertEquals(supplierAggregator.resultVersion(criteria).orElseThrow(), result.supplierVersion());
     }
 
     @Test
     void getFlightsShouldHandleCrazySupplierException() {
-        when(flightRepository.searchFlights(any(), any(), any(), any(), any())).thenReturn(Collections.emptyList());
+        when(flightRepository.searchFlightsPage(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(Collections.emptyList());
         when(crazySupplierClient.getFlights(any())).thenThrow(new RuntimeException("Supplier error"));
 
-        List<FlightResponse> result = flightService.getFlights("A", "B", "C", LocalDateTime.now(), LocalDateTime.now().plusHours(2));
+        FlightSearchResult result = flightService.searchFlights(new FlightSearchCriteria("A", "B", "C", LocalDateTime.now(), LocalDateTime.now().plusHours(2)), firstPage(100));
+
+        assertTrue(result.flights().isEmpty());
+        assertEquals(SupplierStatus.ERROR, result.supplierStatuses().get(CrazyFlightSupplier.NAME));
+        assertNull(result.supplierVersion());
+    }
 
-        assertTrue(result.isEmpty());
+    @Test
+    void getFlightsShouldNotWaitForSlowCrazySupplier() {
+        Flight flight = new Flight();
+        FlightResponse flightResponse = getFlightResponse();
+
+        when(flightRepository.searchFlightsPage(any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(List.of(flight));
+        when(flightMapper.toResponse(flight)).thenReturn(flightResponse);
+        when(crazySupplierClient.getFlights(any())).thenAnswer(invocation -> {
+            Thread.sleep(5_000);
+            return List.of();
+        });
+
+        long start = System.nanoTime();
+        FlightSearchResult result = flightService.searchFlights(new FlightSearchCriteria("A", "B", "C", LocalDateTime.now(), LocalDateTime.now().plusHours(2)), firstPage(100));
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertEquals(List.of(flightResponse), result.flights());
+        assertEquals(SupplierStatus.TIMEOUT, result.supplierStatuses().get(CrazyFlightSupplier.NAME));
+        assertTrue(elapsedMillis < 2_000, "Search should be bounded by the supplier timeout");
+    }
+
+    @Test
+    void getFlightsShouldFailWhenDatabaseLegIsRejected() {
+        FlightService saturatedService = flightService(rejectingExecutor());
+
+        assertThrows(TechnicalException.class, () ->
+                saturatedService.searchFlights(new FlightSearchCriteria("A", "B", "C", null, null), firstPage(100)));
+        verifyNoInteractions(flightRepository);
+    }
+
+    @Test
+    void getFlightsShouldReportRejectedSupplierLegWithoutCallingIt() {
+        FlightResponse indexedFlight = getFlightResponse();
+        flightRouteIndex.load(Stream.of(new VersionedFlight(indexedFlight, 0L)));
+        FlightService saturatedService = flightService(rejectingExecutor());
+
+        FlightSearchResult result = saturatedService.searchFlights(new FlightSearchCriteria(null, "GRU", "JFK", null, null), firstPage(100));
+
+        assertEquals(List.of(indexedFlight), result.flights());
+        assertEquals(SupplierStatus.REJECTED, result.supplierStatuses().get(CrazyFlightSupplier.NAME));
+        verifyNoInteractions(crazySupplierClient);
     }
 
     @Test
@@ -100,6 +366,30 @@ class FlightServiceTest {
         verify(flightRepository).save(entity);
     }
 
+    @Test
+    void saveFlightInfoShouldBumpTheDataVersionOnceTheIndexHasTheFlight() {
+        List<Long> versionsWhileIndexing = new ArrayList<>();
+        flightRouteIndex = new FlightRouteIndex() {
+            @Override
+            public void putAll(Collection<VersionedFlight> flights) {
+                versionsWhileIndexing.add(flightDataVersion.current());
+                super.putAll(flights);
+            }
+        };
+        flightRouteIndex.load(Stream.empty());
+        flightService = flightService(Executors.newCachedThreadPool());
+        Flight savedEntity = new Flight();
+        when(flightMapper.toEntity(any())).thenReturn(new Flight());
+        when(flightRepository.save(any())).thenReturn(savedEntity);
+        when(flightMapper.toResponse(savedEntity)).thenReturn(getFlightResponse());
+        long before = flightDataVersion.current();
+
+        flightService.saveFlightInfo(getFlightDTO());
+
+        assertEquals(List.of(before), versionsWhileIndexing);
+        assertEquals(before + 1, flightDataVersion.current());
+    }
+
     @Test
     void saveFlightInfoShouldThrowTechnicalException() {
         when(flightMapper.toEntity(any())).thenThrow(new RuntimeException("Mapping failed"));
@@ -108,40 +398,96 @@ class FlightServiceTest {
     }
 
     @Test
-    void updateFlightInfoShouldUpdateSuccessfully() {
+    void updateFlightInfoShouldUpdateInASingleStatement() {
         Long id = 1L;
-        Flight existing = new Flight();
-        existing.setId(id);
-
         FlightRequest dto = getFlightDTO();
         Flight updated = new Flight();
 
-        when(flightRepository.findById(id)).thenReturn(Optional.of(existing));
         when(flightMapper.toEntity(dto)).thenReturn(updated);
+        when(flightRepository.updateFlight(id, updated)).thenReturn(1);
 
-        flightService.updateFlightInfo(id, dto);
+        Long version = flightService.updateFlightInfo(id, null, dto);
 
+        assertNull(version);
         assertEquals(id, updated.getId());
-        verify(flightRepository).save(updated);
+        verify(flightRepository).updateFlight(id, updated);
+        verify(flightRepository, never()).findById(any());
+        verify(flightRepository, never()).save(any());
+    }
+
+    @Test
+    void updateFlightInfoShouldNotIndexOverANewerWrite() {
+        FlightResponse newer = getFlightResponse();
+        flightRouteIndex.load(Stream.of(new VersionedFlight(newer, 5L)));
+        Flight updated = new Flight();
+        when(flightMapper.toEntity(any())).thenReturn(updated);
+        when(flightMapper.toResponse(updated)).thenReturn(new FlightResponse(1L, "LATAM", "Internal", 999.99, "GRU", "FRA",
+                newer.departureTime(), newer.arrivalTime()));
+        when(flightRepository.updateFlight(1L, updated)).thenReturn(1);
+        when(flightRepository.findVersionById(1L)).thenReturn(4L);
+
+        flightService.updateFlightInfo(1L, getFlightDTO());
+
+        assertEquals(List.of(newer), flightRouteIndex.search(new FlightSearchCriteria(null, "GRU", null, null, null)));
+    }
+
+    @Test
+    void updateFlightInfoShouldMarkTheRouteDayLockedBeforeTheUpdate() {
+        fareCalendarChanges = new FareCalendarChanges(new FareCalendarProperties(true, Duration.ofSeconds(5), Duration.ofHours(1)));
+        flightService = flightService(Executors.newCachedThreadPool());
+        Flight previous = new Flight();
+        previous.setId(1L);
+        previous.setDepartureAirport("FRA");
+        previous.setDestinationAirport("JFK");
+        previous.setDepartureTime(LocalDateTime.of(2025, 6, 30, 10, 0));
+        Flight updated = new Flight();
+        FlightResponse updatedResponse = getFlightResponse();
+        when(flightMapper.toEntity(any())).thenReturn(updated);
+        when(flightMapper.toResponse(updated)).thenReturn(updatedResponse);
+        when(flightRepository.findAllByIdForUpdate(List.of(1L))).thenReturn(List.of(previous));
+        when(flightRepository.updateFlight(1L, updated)).thenReturn(1);
+
+        flightService.updateFlightInfo(1L, getFlightDTO());
+
+        InOrder inOrder = inOrder(flightRepository);
+        inOrder.verify(flightRepository).findAllByIdForUpdate(List.of(1L));
+        inOrder.verify(flightRepository).updateFlight(1L, updated);
+        assertEquals(Set.of(RouteDay.of("FRA", "JFK", previous.getDepartureTime()), RouteDay.of(updatedResponse)),
+                fareCalendarChanges.drain());
+    }
+
+    @Test
+    void updateFlightInfoShouldReturnNextVersionWhenVersionMatches() {
+        Flight updated = new Flight();
+        when(flightMapper.toEntity(any())).thenReturn(updated);
+        when(flightRepository.updateFlightIfVersion(1L, 3L, updated)).thenReturn(1);
+
+        assertEquals(4L, flightService.updateFlightInfo(1L, 3L, getFlightDTO()));
     }
 
     @Test
     void updateFlightInfoShouldThrowBusinessExceptionIfNotFound() {
-        when(flightRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(flightMapper.toEntity(any())).thenReturn(new Flight());
+        when(flightRepository.updateFlight(anyLong(), any())).thenReturn(0);
 
         assertThrows(BusinessException.class, () -> flightService.updateFlightInfo(1L, getFlightDTO()));
+        verify(flightRepository, never()).existsById(any());
     }
 
     @Test
-    void updateFlightInfoShouldThrowTechnicalExceptionOnError() {
-        Long id = 1L;
-        Flight existing = new Flight();
-        existing.setId(id);
+    void updateFlightInfoShouldThrowPreconditionFailedIfVersionChanged() {
+        when(flightMapper.toEntity(any())).thenReturn(new Flight());
+        when(flightRepository.updateFlightIfVersion(anyLong(), anyLong(), any())).thenReturn(0);
+        when(flightRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class, () -> flightService.updateFlightInfo(1L, 3L, getFlightDTO()));
+    }
 
-        when(flightRepository.findById(id)).thenReturn(Optional.of(existing));
+    @Test
+    void updateFlightInfoShouldThrowTechnicalExceptionOnError() {
         when(flightMapper.toEntity(any())).thenThrow(new RuntimeException());
 
-        assertThrows(TechnicalException.class, () -> flightService.updateFlightInfo(id, getFlightDTO()));
+        assertThrows(TechnicalException.class, () -> flightService.updateFlightInfo(1L, getFlightDTO()));
     }
 
     @Test
@@ -172,6 +518,68 @@ class FlightServiceTest {
         );
 
     }
+    @Test
+    void concurrentIdenticalSearchesShouldShareOneDatabaseQuery() throws Exception {
+        Flight flight = new Flight();
+        FlightResponse databaseFlight = getFlightResponse();
+        CountDownLatch release = new CountDownLatch(1);
+        when(flightRepository.searchFlightsPage(any(), any(), any(), any(), any(), any(), any(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(flight);
+        });
+        when(flightMapper.toResponse(flight)).thenReturn(databaseFlight);
+        when(crazySupplierClient.getFlights(any())).thenReturn(List.of());
+
+        FlightSearchCriteria criteria = new FlightSearchCriteria("AirX", "JFK", "LAX", null, null);
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<FlightSearchResult>> searches = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                searches.add(callers.submit(() -> flightService.searchFlights(criteria, firstPage(10))));
+            }
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (meterRegistry.counter("flights.search.coalesced").count() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+
+            for (Future<FlightSearchResult> search : searches) {
+                assertEquals(List.of(databaseFlight), search.get(5, TimeUnit.SECONDS).flights());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        verify(flightRepository, times(1)).searchFlightsPage(any(), any(), any(), any(), any(), any(), any(), any());
+        assertEquals(3.0, meterRegistry.counter("flights.search.coalesced").count());
+
+        flightService.searchFlights(criteria, firstPage(10));
+        verify(flightRepository, times(2)).searchFlightsPage(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    private static Executor rejectingExecutor() {
+        return command -> {
+            throw new RejectedExecutionException("saturated");
+        };
+    }
+
+    private FlightPageRequest firstPage(int size) {
+        return new FlightPageRequest(null, size);
+    }
+
+    private FlightResponse getSupplierFlightResponse(LocalDateTime depTime) {
+        return new FlightResponse(
+                null,
+                "LATAM",
+                "CrazySupplier",
+                870.0,
+                "GRU",
+                "JFK",
+                depTime,
+                depTime.plusHours(8)
+        );
+    }
+
     private FlightResponse getFlightResponse() {
         LocalDateTime depTime = LocalDateTime.of(2025, 7, 1, 10, 0);
         LocalDateTime arrTime = LocalDateTime.of(2025, 7, 1, 18, 0);
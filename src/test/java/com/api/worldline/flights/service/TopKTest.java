@@ -0,0 +1,41 @@
+package com.api.worldline.flights.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+
+    @Test
+    void toSortedListShouldReturnSmallestElementsInOrder() {
+        List<Integer> values = IntStream.range(0, 1000).boxed().toList();
+        List<Integer> shuffled = new ArrayList<>(values);
+        Collections.shuffle(shuffled, new Random(42));
+
+        TopK<Integer> top = new TopK<>(5, Comparator.naturalOrder());
+        top.offerAll(shuffled);
+
+        assertEquals(List.of(0, 1, 2, 3, 4), top.toSortedList());
+    }
+
+    @Test
+    void toSortedListShouldReturnEverythingWhenFewerThanK() {
+        TopK<Integer> top = new TopK<>(10, Comparator.reverseOrder());
+        top.offerAll(List.of(3, 1, 2));
+
+        assertEquals(List.of(3, 2, 1), top.toSortedList());
+    }
+
+    @Test
+    void constructorShouldRejectNonPositiveK() {
+        assertThrows(IllegalArgumentException.class, () -> new TopK<Integer>(0, Comparator.naturalOrder()));
+    }
+
+}